@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package javax.activation;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A cache of DataContentHandlers resolved for DataHandlers that use the
+ * default CommandMap, keyed by base MIME type.
+ *
+ * A cache instance is only valid for the DataContentHandlerFactory and the
+ * default CommandMap (including its content) that were in effect when it
+ * was created; any change to those replaces it with an empty one. Handlers
+ * are only cached when the default map is a plain MailcapCommandMap, as
+ * other CommandMap implementations give no way of detecting changes.
+ * MailcapCommandMap loads handler classes through the thread context
+ * class loader, so each entry remembers the loader it was created for.
+ *
+ * @version $Rev$ $Date$
+ */
+class DataContentHandlerCache {
+    private static volatile DataContentHandlerCache current;
+
+    private final DataContentHandlerFactory factory;
+    private final CommandMap commandMap;
+    private final int revision;
+    private final ConcurrentMap<String, Entry> handlers = new ConcurrentHashMap<String, Entry>();
+
+    private DataContentHandlerCache(DataContentHandlerFactory factory, CommandMap commandMap, int revision) {
+        this.factory = factory;
+        this.commandMap = commandMap;
+        this.revision = revision;
+    }
+
+    /**
+     * Find the DataContentHandler for a MIME type using the global factory,
+     * falling back to the default CommandMap.
+     *
+     * @param factory  the current global DataContentHandlerFactory, may be null
+     * @param mimeType the base MIME type
+     * @return the handler or null if none is available
+     */
+    static DataContentHandler getDataContentHandler(DataContentHandlerFactory factory, String mimeType) {
+        CommandMap commandMap = CommandMap.getDefaultCommandMap();
+        if (commandMap.getClass() != MailcapCommandMap.class) {
+            return createDataContentHandler(factory, commandMap, mimeType);
+        }
+        int revision = ((MailcapCommandMap) commandMap).getRevision();
+        DataContentHandlerCache cache = current;
+        if (cache == null || cache.factory != factory || cache.commandMap != commandMap || cache.revision != revision) {
+            cache = new DataContentHandlerCache(factory, commandMap, revision);
+            current = cache;
+        }
+        return cache.get(mimeType);
+    }
+
+    static DataContentHandler createDataContentHandler(DataContentHandlerFactory factory, CommandMap commandMap, String mimeType) {
+        DataContentHandler dch = null;
+        if (factory != null) {
+            dch = factory.createDataContentHandler(mimeType);
+        }
+        if (dch == null) {
+            dch = commandMap.createDataContentHandler(mimeType);
+        }
+        return dch;
+    }
+
+    private DataContentHandler get(String mimeType) {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        Entry entry = handlers.get(mimeType);
+        if (entry == null || entry.loader.get() != loader) {
+            entry = new Entry(loader, createDataContentHandler(factory, commandMap, mimeType));
+            handlers.put(mimeType, entry);
+        }
+        return entry.handler;
+    }
+
+    private static class Entry {
+        private final WeakReference<ClassLoader> loader;
+        private final DataContentHandler handler;
+
+        private Entry(ClassLoader loader, DataContentHandler handler) {
+            this.loader = new WeakReference<ClassLoader>(loader);
+            this.handler = handler;
+        }
+    }
+}
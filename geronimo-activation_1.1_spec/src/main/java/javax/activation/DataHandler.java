@@ -22,22 +22,32 @@ package javax.activation;
 import java.awt.datatransfer.DataFlavor;
 import java.awt.datatransfer.Transferable;
 import java.awt.datatransfer.UnsupportedFlavorException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
 import java.net.URL;
+import java.security.AccessControlContext;
+import java.security.AccessController;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
 
 /**
  * @version $Rev$ $Date$
  */
 public class DataHandler implements Transferable {
+    /**
+     * When set, getInputStream() for object-backed handlers serializes the object
+     * on the calling thread into memory rather than pumping it through a pipe.
+     */
+    private static final boolean inMemoryPipe = Boolean.valueOf(System.getProperty("org.apache.geronimo.spec.activation.inMemoryPipe", "false"));
+
     private final DataSource ds;
     private final DataFlavor flavor;
 
-    private CommandMap commandMap;
-    private DataContentHandler dch;
+    private volatile CommandMap commandMap;
+    private volatile DataContentHandler dch;
 
     public DataHandler(DataSource ds) {
         this.ds = ds;
@@ -96,7 +106,7 @@ public class DataHandler implements Transferable {
         return ds.getOutputStream();
     }
 
-    public synchronized DataFlavor[] getTransferDataFlavors() {
+    public DataFlavor[] getTransferDataFlavors() {
         return getDataContentHandler().getTransferDataFlavors();
     }
 
@@ -186,23 +196,43 @@ public class DataHandler implements Transferable {
             if (dch == null) {
                 throw new UnsupportedDataTypeException(mimeType);
             }
-            final PipedInputStream is = new PipedInputStream();
-            final PipedOutputStream os = new PipedOutputStream(is);
-            Thread thread = new Thread("DataHandler Pipe Pump") {
+            if (inMemoryPipe) {
+                ByteArrayOutputStream os = new ByteArrayOutputStream();
+                dch.writeTo(data, mimeType, os);
+                return new ByteArrayInputStream(os.toByteArray());
+            }
+            DataHandlerPipe pipe = new DataHandlerPipe();
+            final OutputStream os = pipe.getOutputStream();
+            // pump threads are shared, so run writeTo() with the caller's
+            // context class loader and access control context
+            final ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+            final AccessControlContext acc = AccessController.getContext();
+            DataHandlerPipe.getPumpExecutor().execute(new Runnable() {
                 public void run() {
+                    Thread thread = Thread.currentThread();
+                    ClassLoader old = thread.getContextClassLoader();
+                    thread.setContextClassLoader(tccl);
                     try {
                         try {
-                            dch.writeTo(data, mimeType, os);
+                            AccessController.doPrivileged(new PrivilegedExceptionAction<Object>() {
+                                public Object run() throws IOException {
+                                    dch.writeTo(data, mimeType, os);
+                                    return null;
+                                }
+                            }, acc);
                         } finally {
                             os.close();
                         }
+                    } catch (PrivilegedActionException e) {
+                        // ignore, per spec - doh!
                     } catch (IOException e) {
                         // ignore, per spec - doh!
+                    } finally {
+                        thread.setContextClassLoader(old);
                     }
                 }
-            };
-            thread.start();
-            return is;
+            });
+            return pipe.getInputStream();
         }
 
         public OutputStream getOutputStream() throws IOException {
@@ -215,8 +245,9 @@ public class DataHandler implements Transferable {
         this.dch = null;
     }
 
-    private synchronized CommandMap getCommandMap() {
-        return commandMap != null ? commandMap : CommandMap.getDefaultCommandMap();
+    private CommandMap getCommandMap() {
+        CommandMap map = commandMap;
+        return map != null ? map : CommandMap.getDefaultCommandMap();
     }
 
     /**
@@ -228,35 +259,37 @@ public class DataHandler implements Transferable {
      * (or if that has not been set, the default map returned by {@link CommandMap#getDefaultCommandMap()})
      * to create the handler.
      *
-     * The resulting handler is cached until the global factory is changed.
+     * The resulting handler is cached until the global factory is changed. Handlers resolved
+     * through the default command map are also shared between DataHandlers, see {@link DataContentHandlerCache}.
      *
      * @return
      */
-    private synchronized DataContentHandler getDataContentHandler() {
-        DataContentHandlerFactory localFactory;
-        synchronized (DataHandler.class) {
-            if (factory != originalFactory) {
-                // setDCHF was called - clear our cached copy of the DCH and DCHF
-                dch = null;
-                originalFactory = factory;
-            }
-            localFactory = originalFactory;
+    private DataContentHandler getDataContentHandler() {
+        DataContentHandlerFactory localFactory = factory;
+        DataContentHandler handler = dch;
+        if (localFactory != originalFactory) {
+            // setDCHF was called - clear our cached copy of the DCH and DCHF
+            handler = null;
+            originalFactory = localFactory;
         }
-        if (dch == null) {
+        if (handler == null) {
             // get the main mime-type portion of the content.
             String mimeType = getMimeType(ds.getContentType());
-            if (localFactory != null) {
-                dch = localFactory.createDataContentHandler(mimeType);
+            CommandMap localMap = commandMap;
+            if (localMap != null) {
+                handler = DataContentHandlerCache.createDataContentHandler(localFactory, localMap, mimeType);
+            } else {
+                handler = DataContentHandlerCache.getDataContentHandler(localFactory, mimeType);
             }
-            if (dch == null) {
-                if (commandMap != null) {
-                    dch = commandMap.createDataContentHandler(mimeType);
-                } else {
-                    dch = CommandMap.getDefaultCommandMap().createDataContentHandler(mimeType);
+            // resolved without the lock; only publish it if setCommandMap() has not
+            // replaced the map it was resolved from in the meantime
+            synchronized (this) {
+                if (commandMap == localMap) {
+                    dch = handler;
                 }
             }
         }
-        return dch;
+        return handler;
     }
 
     /**
@@ -282,15 +315,9 @@ public class DataHandler implements Transferable {
      * This is used to check if the DataContentHandlerFactory has been changed.
      * This is not specified behaviour but this check is required to make this work like the RI.
      */
-    private DataContentHandlerFactory originalFactory;
-
-    {
-        synchronized (DataHandler.class) {
-            originalFactory = factory;
-        }
-    }
+    private volatile DataContentHandlerFactory originalFactory = factory;
 
-    private static DataContentHandlerFactory factory;
+    private static volatile DataContentHandlerFactory factory;
 
     /**
      * Set the DataContentHandlerFactory to use.
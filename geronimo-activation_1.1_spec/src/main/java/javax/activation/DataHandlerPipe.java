@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package javax.activation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded ring buffer connecting the thread running a DataContentHandler's
+ * writeTo() with the consumer of DataHandler.getInputStream().
+ *
+ * Unlike PipedInputStream, data is transferred in bulk, the buffer is
+ * considerably larger and the reader and writer threads are not tracked,
+ * which allows the writer to run on a pooled thread.
+ *
+ * @version $Rev$ $Date$
+ */
+class DataHandlerPipe {
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final byte[] buffer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private int readPos;
+    private int count;
+    private boolean writerClosed;
+    private boolean readerClosed;
+
+    private final InputStream in = new PipeInputStream();
+    private final OutputStream out = new PipeOutputStream();
+
+    DataHandlerPipe() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    DataHandlerPipe(int size) {
+        buffer = new byte[size];
+    }
+
+    InputStream getInputStream() {
+        return in;
+    }
+
+    OutputStream getOutputStream() {
+        return out;
+    }
+
+    /**
+     * Return the executor used to run pipe pumps. Threads are reused between
+     * calls and discarded after being idle for a minute; the pool must not be
+     * bounded as each pump blocks until its reader has consumed the data.
+     */
+    static Executor getPumpExecutor() {
+        return PumpExecutorHolder.EXECUTOR;
+    }
+
+    private int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            while (count == 0) {
+                if (readerClosed) {
+                    throw new IOException("Pipe closed");
+                }
+                if (writerClosed) {
+                    return -1;
+                }
+                await(notEmpty);
+            }
+            int n = Math.min(len, count);
+            int first = Math.min(n, buffer.length - readPos);
+            System.arraycopy(buffer, readPos, b, off, first);
+            if (first < n) {
+                System.arraycopy(buffer, 0, b, off + first, n - first);
+            }
+            readPos = (readPos + n) % buffer.length;
+            count -= n;
+            notFull.signal();
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int available() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        lock.lock();
+        try {
+            while (len > 0) {
+                while (count == buffer.length) {
+                    if (readerClosed) {
+                        throw new IOException("Pipe closed");
+                    }
+                    await(notFull);
+                }
+                if (readerClosed || writerClosed) {
+                    throw new IOException("Pipe closed");
+                }
+                int writePos = (readPos + count) % buffer.length;
+                int n = Math.min(len, buffer.length - count);
+                int first = Math.min(n, buffer.length - writePos);
+                System.arraycopy(b, off, buffer, writePos, first);
+                if (first < n) {
+                    System.arraycopy(b, off + first, buffer, 0, n - first);
+                }
+                count += n;
+                off += n;
+                len -= n;
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeWriter() {
+        lock.lock();
+        try {
+            writerClosed = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeReader() {
+        lock.lock();
+        try {
+            readerClosed = true;
+            count = 0;
+            notFull.signalAll();
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void await(Condition condition) throws InterruptedIOException {
+        try {
+            condition.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    private class PipeInputStream extends InputStream {
+        private final byte[] single = new byte[1];
+
+        public int read() throws IOException {
+            int n = DataHandlerPipe.this.read(single, 0, 1);
+            return n == -1 ? -1 : single[0] & 0xff;
+        }
+
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            return DataHandlerPipe.this.read(b, off, len);
+        }
+
+        public int available() {
+            return DataHandlerPipe.this.available();
+        }
+
+        public void close() {
+            closeReader();
+        }
+    }
+
+    private class PipeOutputStream extends OutputStream {
+        private final byte[] single = new byte[1];
+
+        public void write(int b) throws IOException {
+            single[0] = (byte) b;
+            DataHandlerPipe.this.write(single, 0, 1);
+        }
+
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            DataHandlerPipe.this.write(b, off, len);
+        }
+
+        public void close() {
+            closeWriter();
+        }
+    }
+
+    private static class PumpExecutorHolder {
+        private static final Executor EXECUTOR = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(), new ThreadFactory() {
+                    public Thread newThread(final Runnable r) {
+                        // don't let pooled threads inherit and pin the context
+                        // class loader or access control context of whichever
+                        // caller happened to create them
+                        return AccessController.doPrivileged(new PrivilegedAction<Thread>() {
+                            public Thread run() {
+                                Thread thread = new Thread(r, "DataHandler Pipe Pump");
+                                thread.setDaemon(true);
+                                thread.setContextClassLoader(null);
+                                return thread;
+                            }
+                        });
+                    }
+                });
+    }
+}
@@ -51,6 +51,8 @@ public class MailcapCommandMap extends CommandMap {
     // commands identified as fallbacks...these are used last, and also used as wildcards.
     private final Map fallbackCommands = new HashMap();
     private URL url;
+    // bumped whenever entries are added so cached content handlers can be discarded.
+    private volatile int revision;
 
     public MailcapCommandMap() {
         ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
@@ -153,6 +155,7 @@ public class MailcapCommandMap extends CommandMap {
     }
 
     public synchronized void addMailcap(String mail_cap) {
+        revision++;
         int index = 0;
         // skip leading whitespace
         index = skipSpace(mail_cap, index);
@@ -457,6 +460,10 @@ public class MailcapCommandMap extends CommandMap {
         }
     }
 
+    int getRevision() {
+        return revision;
+    }
+
     public synchronized DataContentHandler createDataContentHandler(String mimeType) {
 
         CommandInfo info = getCommand(mimeType, "content-handler");
@@ -29,6 +29,7 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.StringTokenizer;
 import java.util.Enumeration;
 import java.net.URL;
@@ -39,7 +40,14 @@ import java.net.URL;
 public class MimetypesFileTypeMap extends FileTypeMap {
     private static final String DEFAULT_TYPE = "application/octet-stream";
 
+    /**
+     * When set, files whose extension is unknown are identified from their first bytes.
+     */
+    private static final boolean sniffContent = Boolean.valueOf(System.getProperty("org.apache.geronimo.spec.activation.sniffContentType", "false"));
+
     private final Map types = new HashMap();
+    // immutable snapshot of types used for lookups; discarded whenever types is modified.
+    private volatile ExtensionTable table;
 
     public MimetypesFileTypeMap() {
         // defaults from /META-INF/mimetypes.default
@@ -167,19 +175,160 @@ public class MimetypesFileTypeMap extends FileTypeMap {
             String fileType = tok.nextToken();
             types.put(fileType, contentType);
         }
+        table = null;
     }
 
     public String getContentType(File f) {
-        return getContentType(f.getName());
+        if (!sniffContent) {
+            return getContentType(f.getName());
+        }
+        String contentType = lookup(f.getName());
+        if (contentType == null) {
+            contentType = sniffContentType(f);
+        }
+        return contentType == null ? DEFAULT_TYPE : contentType;
+    }
+
+    public String getContentType(String filename) {
+        String contentType = lookup(filename);
+        return contentType == null ? DEFAULT_TYPE : contentType;
     }
 
-    public synchronized String getContentType(String filename) {
+    private String lookup(String filename) {
         int index = filename.lastIndexOf('.');
         if (index == -1 || index == filename.length()-1) {
-            return DEFAULT_TYPE;
+            return null;
+        }
+        ExtensionTable t = table;
+        if (t == null) {
+            t = getTable();
+        }
+        return t.get(filename, index + 1);
+    }
+
+    private synchronized ExtensionTable getTable() {
+        if (table == null) {
+            table = new ExtensionTable(types);
+        }
+        return table;
+    }
+
+    /**
+     * Identify a few common formats from the leading bytes of a file.
+     *
+     * @return the content type or null if the file is unreadable or not recognized
+     */
+    private static String sniffContentType(File f) {
+        byte[] header = new byte[16];
+        int length = 0;
+        try {
+            InputStream is = new FileInputStream(f);
+            try {
+                int count;
+                while (length < header.length && (count = is.read(header, length, header.length - length)) != -1) {
+                    length += count;
+                }
+            } finally {
+                is.close();
+            }
+        } catch (SecurityException e) {
+            return null;
+        } catch (IOException e) {
+            return null;
+        }
+        if (startsWith(header, length, "GIF87a") || startsWith(header, length, "GIF89a")) {
+            return "image/gif";
+        }
+        if (length >= 3 && (header[0] & 0xff) == 0xff && (header[1] & 0xff) == 0xd8 && (header[2] & 0xff) == 0xff) {
+            return "image/jpeg";
+        }
+        if (length >= 4 && (header[0] & 0xff) == 0x89 && startsWith(header, 1, length, "PNG")) {
+            return "image/png";
+        }
+        if (startsWith(header, length, "%PDF-")) {
+            return "application/pdf";
+        }
+        if (startsWith(header, length, "PK\003\004")) {
+            return "application/zip";
+        }
+        if (startsWith(header, length, "<?xml")) {
+            return "text/xml";
+        }
+        if (startsWith(header, length, "<html") || startsWith(header, length, "<HTML") || startsWith(header, length, "<!DOCTYPE html")) {
+            return "text/html";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, int length, String magic) {
+        return startsWith(header, 0, length, magic);
+    }
+
+    private static boolean startsWith(byte[] header, int offset, int length, String magic) {
+        if (length - offset < magic.length()) {
+            return false;
+        }
+        for (int i = 0; i < magic.length(); i++) {
+            if (header[offset + i] != (byte) magic.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * An immutable open-addressed table of file extensions.  Lookups are made directly
+     * against the trailing characters of a file name; an exact match takes precedence
+     * over one that differs only in case.
+     */
+    private static class ExtensionTable {
+        private final String[] keys;
+        private final String[] values;
+        private final int mask;
+
+        ExtensionTable(Map types) {
+            int size = 16;
+            while (size < types.size() * 2) {
+                size <<= 1;
+            }
+            keys = new String[size];
+            values = new String[size];
+            mask = size - 1;
+            for (Iterator i = types.entrySet().iterator(); i.hasNext();) {
+                Map.Entry entry = (Map.Entry) i.next();
+                String key = (String) entry.getKey();
+                int slot = hash(key, 0) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = (String) entry.getValue();
+            }
+        }
+
+        String get(String s, int start) {
+            int length = s.length() - start;
+            String match = null;
+            for (int slot = hash(s, start) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+                String key = keys[slot];
+                if (key.length() == length) {
+                    if (key.regionMatches(0, s, start, length)) {
+                        return values[slot];
+                    }
+                    if (match == null && key.regionMatches(true, 0, s, start, length)) {
+                        match = values[slot];
+                    }
+                }
+            }
+            return match;
+        }
+
+        private static int hash(String s, int start) {
+            int h = 0;
+            for (int i = start; i < s.length(); i++) {
+                h = 31 * h + Character.toLowerCase(s.charAt(i));
+            }
+            return h ^ (h >>> 16);
         }
-        String fileType = filename.substring(index + 1);
-        String contentType = (String) types.get(fileType);
-        return contentType == null ? DEFAULT_TYPE : contentType;
     }
 }
@@ -22,9 +22,12 @@
 //
 package javax.activation;
 
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.awt.datatransfer.DataFlavor;
 import java.awt.datatransfer.UnsupportedFlavorException;
 
@@ -44,6 +47,79 @@ public class DataHandlerTest extends TestCase {
         assertEquals("Hello World", new String(bytes, 0, 11));
     }
 
+    public void testLargeObjectInputStream() throws IOException {
+        StringBuffer buf = new StringBuffer();
+        for (int i = 0; i < 10000; i++) {
+            buf.append(i).append(',');
+        }
+        String data = buf.toString();
+        DataHandler handler = new DataHandler(data, "text/plain");
+        InputStream is = handler.getInputStream();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] bytes = new byte[1000];
+        int count;
+        while ((count = is.read(bytes)) != -1) {
+            out.write(bytes, 0, count);
+        }
+        is.close();
+        assertEquals(data, new String(out.toByteArray()));
+    }
+
+    public void testObjectInputStreamEarlyClose() throws IOException {
+        StringBuffer buf = new StringBuffer();
+        for (int i = 0; i < 100000; i++) {
+            buf.append('x');
+        }
+        DataHandler handler = new DataHandler(buf.toString(), "text/plain");
+        InputStream is = handler.getInputStream();
+        assertEquals('x', is.read());
+        is.close();
+        try {
+            is.read();
+            fail();
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    public void testObjectInputStreamContextClassLoader() throws IOException {
+        Thread thread = Thread.currentThread();
+        ClassLoader old = thread.getContextClassLoader();
+        ClassLoader loader = new URLClassLoader(new URL[0]);
+        thread.setContextClassLoader(loader);
+        try {
+            InputStream is = new DataHandler(new Object(), "text/plain").getInputStream();
+            assertEquals(String.valueOf(System.identityHashCode(loader)), readFully(is));
+        } finally {
+            thread.setContextClassLoader(old);
+        }
+        // the pooled pump thread must not keep the previous caller's loader
+        InputStream is = new DataHandler(new Object(), "text/plain").getInputStream();
+        assertEquals(String.valueOf(System.identityHashCode(old)), readFully(is));
+    }
+
+    public void testDataContentHandlerCache() {
+        DataContentHandler dch = DataContentHandlerCache.getDataContentHandler(null, "text/plain");
+        assertTrue(dch instanceof DummyTextHandler);
+        assertSame(dch, DataContentHandlerCache.getDataContentHandler(null, "text/plain"));
+        assertNull(DataContentHandlerCache.getDataContentHandler(null, "text/x-unknown"));
+
+        // changing the default map content discards cached handlers
+        ((MailcapCommandMap) CommandMap.getDefaultCommandMap()).addMailcap("text/x-unknown;;    x-java-content-handler=" + DummyTextHandler.class.getName());
+        assertTrue(DataContentHandlerCache.getDataContentHandler(null, "text/x-unknown") instanceof DummyTextHandler);
+        assertNotSame(dch, DataContentHandlerCache.getDataContentHandler(null, "text/plain"));
+    }
+
+    private static String readFully(InputStream is) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int b;
+        while ((b = is.read()) != -1) {
+            out.write(b);
+        }
+        is.close();
+        return new String(out.toByteArray());
+    }
+
     protected void setUp() throws Exception {
         defaultMap = CommandMap.getDefaultCommandMap();
         MailcapCommandMap myMap = new MailcapCommandMap();
@@ -69,6 +145,10 @@ public class DataHandlerTest extends TestCase {
         }
 
         public void writeTo(Object obj, String mimeType, OutputStream os) throws IOException {
+            if (!(obj instanceof String)) {
+                // report the context class loader writeTo() ran with
+                obj = String.valueOf(System.identityHashCode(Thread.currentThread().getContextClassLoader()));
+            }
             os.write(((String)obj).getBytes());
         }
     }
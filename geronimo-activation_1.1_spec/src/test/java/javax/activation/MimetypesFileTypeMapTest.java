@@ -48,6 +48,19 @@ public class MimetypesFileTypeMapTest extends TestCase {
         assertEquals("text/foo", typeMap.getContentType("x.foo"));
     }
 
+    public void testCaseInsensitive() {
+        typeMap.addMimeTypes("text/foo foo");
+        assertEquals("text/foo", typeMap.getContentType("x.FOO"));
+        assertEquals("text/foo", typeMap.getContentType("x.y.Foo"));
+        // an exact match wins over a case-insensitive one
+        typeMap.addMimeTypes("text/bar FOO");
+        assertEquals("text/bar", typeMap.getContentType("x.FOO"));
+        assertEquals("text/foo", typeMap.getContentType("x.foo"));
+        assertEquals("application/octet-stream", typeMap.getContentType("x.fo"));
+        assertEquals("application/octet-stream", typeMap.getContentType("x."));
+        assertEquals("application/octet-stream", typeMap.getContentType("foo"));
+    }
+
     protected void setUp() throws Exception {
         super.setUp();
         typeMap = new MimetypesFileTypeMap();
@@ -26,20 +26,23 @@ import java.lang.reflect.Array;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 public class BeanELResolver extends ELResolver {
 
     private final boolean readOnly;
 
-    private final ConcurrentCache<String, BeanProperties> cache = new ConcurrentCache<String, BeanProperties>(
-            1000);
+    private static final WeakIdentityCache<Class<?>, BeanProperties> propertiesCache = new WeakIdentityCache<Class<?>, BeanProperties>();
+
+    private static final WeakIdentityCache<Class<?>, ConcurrentMap<String, MethodTarget[]>> methodsCache = new WeakIdentityCache<Class<?>, ConcurrentMap<String, MethodTarget[]>>();
 
     public BeanELResolver() {
         this.readOnly = false;
@@ -202,10 +205,6 @@ public class BeanELResolver extends ELResolver {
         public BeanProperty getBeanProperty(String name) {
             return get(null, name);
         }
-
-        private Class<?> getType() {
-            return type;
-        }
     }
 
     protected final static class BeanProperty {
@@ -215,9 +214,9 @@ public class BeanELResolver extends ELResolver {
 
         private final PropertyDescriptor descriptor;
 
-        private Method read;
+        private volatile Method read;
 
-        private Method write;
+        private volatile Method write;
 
         public BeanProperty(Class<?> owner, PropertyDescriptor descriptor) {
             this.owner = owner;
@@ -272,10 +271,10 @@ public class BeanELResolver extends ELResolver {
         Class<?> type = base.getClass();
         String prop = property.toString();
 
-        BeanProperties props = this.cache.get(type.getName());
-        if (props == null || type != props.getType()) {
+        BeanProperties props = propertiesCache.get(type);
+        if (props == null) {
             props = new BeanProperties(type);
-            this.cache.put(type.getName(), props);
+            propertiesCache.put(type, props);
         }
 
         return props.get(ctx, prop);
@@ -313,39 +312,6 @@ public class BeanELResolver extends ELResolver {
         return null;
     }
 
-    private final static class ConcurrentCache<K,V> {
-
-        private final int size;
-        private final Map<K,V> eden;
-        private final Map<K,V> longterm;
-
-        public ConcurrentCache(int size) {
-            this.size = size;
-            this.eden = new ConcurrentHashMap<K,V>(size);
-            this.longterm = new WeakHashMap<K,V>(size);
-        }
-
-        public V get(K key) {
-            V value = this.eden.get(key);
-            if (value == null) {
-                value = this.longterm.get(key);
-                if (value != null) {
-                    this.eden.put(key, value);
-                }
-            }
-            return value;
-        }
-
-        public void put(K key, V value) {
-            if (this.eden.size() >= this.size) {
-                this.longterm.putAll(this.eden);
-                this.eden.clear();
-            }
-            this.eden.put(key, value);
-        }
-
-    }
-
     public Object invoke(ELContext context, Object base, Object method, Class<?>[] paramTypes, Object[] params) {
         if (context == null) {
             throw new NullPointerException("ELContext could not be nulll");
@@ -368,39 +334,39 @@ public class BeanELResolver extends ELResolver {
             params = new Object[0];
         }
 
-        Method targetMethod = null;
+        MethodTarget target = null;
         if (paramTypes == null) {
             int paramsNumber = params.length;
-            Method[] methods = targetClass.getMethods();
-            for (Method m : methods) {
-                if (m.getName().equals(methodName) && m.getParameterTypes().length == paramsNumber) {
-                    targetMethod = m;
+            MethodTarget[] candidates = methods(targetClass, methodName);
+            for (MethodTarget m : candidates) {
+                if (m.parameterTypes.length == paramsNumber) {
+                    target = m;
                     break;
                 }
             }
-            if (targetMethod == null) {
-                for (Method m : methods) {
-                    if (m.getName().equals(methodName) && m.isVarArgs() && paramsNumber >= (m.getParameterTypes().length - 1)) {
-                        targetMethod = m;
+            if (target == null) {
+                for (MethodTarget m : candidates) {
+                    if (m.method.isVarArgs() && paramsNumber >= (m.parameterTypes.length - 1)) {
+                        target = m;
                         break;
                     }
                 }
             }
         } else {
             try {
-                targetMethod = targetClass.getMethod(methodName, paramTypes);
+                target = new MethodTarget(targetClass.getMethod(methodName, paramTypes));
             } catch (SecurityException e) {
                 throw new ELException(e);
             } catch (NoSuchMethodException e) {
                 throw new MethodNotFoundException(e);
             }
         }
-        if (targetMethod == null) {
+        if (target == null) {
             throw new MethodNotFoundException(method + " is not found in target class " + targetClass.getName());
         }
-        if (paramTypes == null) {
-            paramTypes = targetMethod.getParameterTypes();
-        }
+        Method targetMethod = target.method;
+        paramTypes = target.parameterTypes;
+        Class<?>[] boxedParamTypes = target.boxedParameterTypes;
         //Initial check whether the types and parameter values length
         if (targetMethod.isVarArgs()) {
             if (paramTypes.length - 1 > params.length) {
@@ -413,17 +379,9 @@ public class BeanELResolver extends ELResolver {
             Object[] finalParamValues = new Object[paramTypes.length];
             //Only do the parameter conversion while the method is not a non-parameter one
             if (paramTypes.length > 0) {
-                ExpressionFactory expressionFactory = null;
-                if (ELUtils.isCachedExpressionFactoryEnabled()) {
-                    expressionFactory = ELUtils.getCachedExpressionFactory();
-                }
-                if (expressionFactory == null) {
-                    expressionFactory = ExpressionFactory.newInstance();
-                }
-
                 int iCurrentIndex = 0;
                 for (int iLoopSize = paramTypes.length - 1; iCurrentIndex < iLoopSize; iCurrentIndex++) {
-                    finalParamValues[iCurrentIndex] = expressionFactory.coerceToType(params[iCurrentIndex], paramTypes[iCurrentIndex]);
+                    finalParamValues[iCurrentIndex] = coerceToType(params[iCurrentIndex], paramTypes[iCurrentIndex], boxedParamTypes[iCurrentIndex]);
                 }
                 /**
                  * Not sure it is over-designed. Do not find detailed description about how the parameter values are passed if the method is of variable arguments.
@@ -443,13 +401,14 @@ public class BeanELResolver extends ELResolver {
                     } else {
                         Object targetArray = Array.newInstance(varArgsClassType.getComponentType(), params.length - iCurrentIndex);
                         Class<?> componentClassType = varArgsClassType.getComponentType();
+                        Class<?> boxedComponentClassType = box(componentClassType);
                         for (int i = 0, iLoopSize = params.length - iCurrentIndex; i < iLoopSize; i++) {
-                            Array.set(targetArray, i, expressionFactory.coerceToType(params[iCurrentIndex + i], componentClassType));
+                            Array.set(targetArray, i, coerceToType(params[iCurrentIndex + i], componentClassType, boxedComponentClassType));
                         }
                         finalParamValues[iCurrentIndex] = targetArray;
                     }
                 } else {
-                    finalParamValues[iCurrentIndex] = expressionFactory.coerceToType(params[iCurrentIndex], paramTypes[iCurrentIndex]);
+                    finalParamValues[iCurrentIndex] = coerceToType(params[iCurrentIndex], paramTypes[iCurrentIndex], boxedParamTypes[iCurrentIndex]);
                 }
             }
             Object retValue = targetMethod.invoke(base, finalParamValues);
@@ -461,4 +420,87 @@ public class BeanELResolver extends ELResolver {
             throw new ELException(e.getCause());
         }
     }
+
+    /**
+     * Return the public methods of a class with the given name, in the order of Class.getMethods().
+     */
+    private static MethodTarget[] methods(Class<?> targetClass, String methodName) {
+        ConcurrentMap<String, MethodTarget[]> methods = methodsCache.get(targetClass);
+        if (methods == null) {
+            methods = new ConcurrentHashMap<String, MethodTarget[]>();
+            methodsCache.put(targetClass, methods);
+        }
+        MethodTarget[] targets = methods.get(methodName);
+        if (targets == null) {
+            List<MethodTarget> found = new ArrayList<MethodTarget>();
+            for (Method m : targetClass.getMethods()) {
+                if (m.getName().equals(methodName)) {
+                    found.add(new MethodTarget(m));
+                }
+            }
+            targets = found.toArray(new MethodTarget[found.size()]);
+            methods.put(methodName, targets);
+        }
+        return targets;
+    }
+
+    /**
+     * Values which are already of the parameter type are passed as they are, only the others
+     * go through the ExpressionFactory coercion rules.
+     */
+    private static Object coerceToType(Object value, Class<?> type, Class<?> boxedType) {
+        if (value != null && boxedType.isInstance(value)) {
+            return value;
+        }
+        ExpressionFactory expressionFactory;
+        if (ELUtils.isCachedExpressionFactoryEnabled()) {
+            expressionFactory = ELUtils.getCachedExpressionFactory();
+        } else {
+            expressionFactory = ExpressionFactory.newInstance();
+        }
+        return expressionFactory.coerceToType(value, type);
+    }
+
+    private static Class<?> box(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        } else if (type == Integer.TYPE) {
+            return Integer.class;
+        } else if (type == Long.TYPE) {
+            return Long.class;
+        } else if (type == Boolean.TYPE) {
+            return Boolean.class;
+        } else if (type == Double.TYPE) {
+            return Double.class;
+        } else if (type == Float.TYPE) {
+            return Float.class;
+        } else if (type == Character.TYPE) {
+            return Character.class;
+        } else if (type == Byte.TYPE) {
+            return Byte.class;
+        } else if (type == Short.TYPE) {
+            return Short.class;
+        }
+        return Void.class;
+    }
+
+    /**
+     * A method candidate for invoke() along with what is needed to check its arguments.
+     */
+    private static final class MethodTarget {
+        private final Method method;
+
+        private final Class<?>[] parameterTypes;
+
+        private final Class<?>[] boxedParameterTypes;
+
+        private MethodTarget(Method method) {
+            this.method = method;
+            this.parameterTypes = method.getParameterTypes();
+            this.boxedParameterTypes = new Class<?>[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                boxedParameterTypes[i] = box(parameterTypes[i]);
+            }
+        }
+    }
 }
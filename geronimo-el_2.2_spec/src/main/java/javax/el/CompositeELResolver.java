@@ -19,14 +19,33 @@ package javax.el;
 
 import java.beans.FeatureDescriptor;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class CompositeELResolver extends ELResolver {
 
-    private AtomicReference<ELResolver[]> resolvers;
+    /*
+     * The standard resolvers only ever resolve bases of a given type, so once
+     * the type of a base is known they can be left out of the chain without
+     * changing its outcome. The resulting chains are cached per base class,
+     * the remaining resolvers are still called in the order they were added.
+     */
+    private static final boolean dispatchCacheEnabled = Boolean.valueOf(System.getProperty("org.apache.geronimo.spec.el.useResolverDispatchCache", "true"));
+
+    /*
+     * When enabled, toString() reports how often each resolver resolved a
+     * property and how often the whole chain failed to.
+     */
+    private static final boolean statisticsEnabled = Boolean.valueOf(System.getProperty("org.apache.geronimo.spec.el.collectResolverStatistics", "false"));
+
+    private AtomicReference<Chain> resolvers;
 
     public CompositeELResolver() {
-        this.resolvers = new AtomicReference<ELResolver[]>(new ELResolver[0]);
+        this.resolvers = new AtomicReference<Chain>(new Chain(new ELResolver[0]));
     }
 
     synchronized public void add(ELResolver elResolver) {
@@ -34,30 +53,34 @@ public class CompositeELResolver extends ELResolver {
             throw new NullPointerException();
         }
 
-        ELResolver[] rslvrs = resolvers.get();
+        ELResolver[] rslvrs = resolvers.get().resolvers;
         int sz = rslvrs.length;
         
         ELResolver[] nr = new ELResolver[sz + 1];
         System.arraycopy(rslvrs, 0, nr, 0, sz);
         nr[sz] = elResolver;
         
-        resolvers.set(nr);
+        resolvers.set(new Chain(nr));
     }
 
     public Object getValue(ELContext context, Object base, Object property)
             throws NullPointerException, PropertyNotFoundException, ELException {
         context.setPropertyResolved(false);
 
-        ELResolver[] rslvrs = resolvers.get();
-        int sz = rslvrs.length;
+        Chain chain = resolvers.get();
+        ELResolver[] rslvrs = chain.resolvers;
+        int[] plan = chain.plan(base);
+        int sz = plan.length;
 
         Object result = null;
         for (int i = 0; i < sz; i++) {
-            result = rslvrs[i].getValue(context, base, property);
+            result = rslvrs[plan[i]].getValue(context, base, property);
             if (context.isPropertyResolved()) {
+                chain.resolved(plan[i]);
                 return result;
             }
         }
+        chain.unresolved();
         return null;
     }
 
@@ -67,42 +90,50 @@ public class CompositeELResolver extends ELResolver {
             ELException {
         context.setPropertyResolved(false);
 
-        ELResolver[] rslvrs = resolvers.get();
-        int sz = rslvrs.length;
+        Chain chain = resolvers.get();
+        ELResolver[] rslvrs = chain.resolvers;
+        int[] plan = chain.plan(base);
+        int sz = plan.length;
 
         for (int i = 0; i < sz; i++) {
-            rslvrs[i].setValue(context, base, property, value);
+            rslvrs[plan[i]].setValue(context, base, property, value);
             if (context.isPropertyResolved()) {
+                chain.resolved(plan[i]);
                 return;
             }
         }
+        chain.unresolved();
     }
 
     public boolean isReadOnly(ELContext context, Object base, Object property)
             throws NullPointerException, PropertyNotFoundException, ELException {
         context.setPropertyResolved(false);
 
-        ELResolver[] rslvrs = resolvers.get();
-        int sz = rslvrs.length;
+        Chain chain = resolvers.get();
+        ELResolver[] rslvrs = chain.resolvers;
+        int[] plan = chain.plan(base);
+        int sz = plan.length;
 
         boolean readOnly = false;
         for (int i = 0; i < sz; i++) {
-            readOnly = rslvrs[i].isReadOnly(context, base, property);
+            readOnly = rslvrs[plan[i]].isReadOnly(context, base, property);
             if (context.isPropertyResolved()) {
+                chain.resolved(plan[i]);
                 return readOnly;
             }
         }
+        chain.unresolved();
         return false;
     }
 
     public Iterator<FeatureDescriptor> getFeatureDescriptors(ELContext context, Object base) {        
-        ELResolver[] rslvrs = resolvers.get();
+        ELResolver[] rslvrs = resolvers.get().resolvers;
         int sz = rslvrs.length;
         return new FeatureIterator(context, base, rslvrs, sz);
     }
 
     public Class<?> getCommonPropertyType(ELContext context, Object base) {
-        ELResolver[] rslvrs = resolvers.get();
+        ELResolver[] rslvrs = resolvers.get().resolvers;
         int sz = rslvrs.length;
 
         Class<?> commonType = null, type = null;
@@ -120,16 +151,20 @@ public class CompositeELResolver extends ELResolver {
             throws NullPointerException, PropertyNotFoundException, ELException {
         context.setPropertyResolved(false);
 
-        ELResolver[] rslvrs = resolvers.get();
-        int sz = rslvrs.length;
+        Chain chain = resolvers.get();
+        ELResolver[] rslvrs = chain.resolvers;
+        int[] plan = chain.plan(base);
+        int sz = plan.length;
 
         Class<?> type;
         for (int i = 0; i < sz; i++) {
-            type = rslvrs[i].getType(context, base, property);
+            type = rslvrs[plan[i]].getType(context, base, property);
             if (context.isPropertyResolved()) {
+                chain.resolved(plan[i]);
                 return type;
             }
         }
+        chain.unresolved();
         return null;
     }
 
@@ -203,17 +238,141 @@ public class CompositeELResolver extends ELResolver {
 
         context.setPropertyResolved(false);
 
-        ELResolver[] rslvrs = resolvers.get();
-        int sz = rslvrs.length;
+        Chain chain = resolvers.get();
+        ELResolver[] rslvrs = chain.resolvers;
+        int[] plan = chain.plan(base);
+        int sz = plan.length;
 
         Object retValue = null;
         for (int i = 0; i < sz; i++) {
-            retValue = rslvrs[i].invoke(context, base, targetMethod, paramTypes, params);
+            retValue = rslvrs[plan[i]].invoke(context, base, targetMethod, paramTypes, params);
             if (context.isPropertyResolved()) {
+                chain.resolved(plan[i]);
                 return retValue;
             }
         }
+        chain.unresolved();
         return null;
     }
 
+    public String toString() {
+        Chain chain = resolvers.get();
+        if (chain.hits == null) {
+            return super.toString();
+        }
+        StringBuilder sb = new StringBuilder(super.toString()).append('[');
+        for (int i = 0; i < chain.resolvers.length; i++) {
+            sb.append(chain.resolvers[i].getClass().getName()).append('=').append(chain.hits.get(i)).append(", ");
+        }
+        return sb.append("unresolved=").append(chain.misses.get()).append(']').toString();
+    }
+
+    private final static class Chain {
+
+        private final ELResolver[] resolvers;
+
+        private final int[] all;
+
+        private final int[] nullBase;
+
+        private final WeakIdentityCache<Class<?>, int[]> plans;
+
+        private final AtomicLongArray hits;
+
+        private final AtomicLong misses;
+
+        public Chain(ELResolver[] resolvers) {
+            this.resolvers = resolvers;
+            this.all = new int[resolvers.length];
+            for (int i = 0; i < resolvers.length; i++) {
+                this.all[i] = i;
+            }
+            if (dispatchCacheEnabled) {
+                this.nullBase = this.computePlan(null);
+                this.plans = new WeakIdentityCache<Class<?>, int[]>();
+            } else {
+                this.nullBase = this.all;
+                this.plans = null;
+            }
+            if (statisticsEnabled) {
+                this.hits = new AtomicLongArray(resolvers.length);
+                this.misses = new AtomicLong();
+            } else {
+                this.hits = null;
+                this.misses = null;
+            }
+        }
+
+        /**
+         * The indexes of the resolvers that may resolve properties of the given base.
+         */
+        public int[] plan(Object base) {
+            if (base == null) {
+                return this.nullBase;
+            }
+            if (this.plans == null) {
+                return this.all;
+            }
+            Class<?> type = base.getClass();
+            int[] plan = this.plans.get(type);
+            if (plan == null) {
+                plan = this.computePlan(type);
+                this.plans.put(type, plan);
+            }
+            return plan;
+        }
+
+        public void resolved(int index) {
+            if (this.hits != null) {
+                this.hits.incrementAndGet(index);
+            }
+        }
+
+        public void unresolved() {
+            if (this.misses != null) {
+                this.misses.incrementAndGet();
+            }
+        }
+
+        private int[] computePlan(Class<?> type) {
+            int[] plan = new int[this.resolvers.length];
+            int sz = 0;
+            for (int i = 0; i < this.resolvers.length; i++) {
+                if (mayResolve(this.resolvers[i], type)) {
+                    plan[sz++] = i;
+                }
+            }
+            if (sz == plan.length) {
+                return this.all;
+            }
+            int[] result = new int[sz];
+            System.arraycopy(plan, 0, result, 0, sz);
+            return result;
+        }
+
+        /*
+         * Only the exact standard classes are known, subclasses may resolve
+         * other bases.
+         */
+        private static boolean mayResolve(ELResolver resolver, Class<?> type) {
+            Class<?> resolverClass = resolver.getClass();
+            if (resolverClass == BeanELResolver.class) {
+                return type != null;
+            }
+            if (resolverClass == ArrayELResolver.class) {
+                return type != null && type.isArray();
+            }
+            if (resolverClass == ListELResolver.class) {
+                return type != null && List.class.isAssignableFrom(type);
+            }
+            if (resolverClass == MapELResolver.class) {
+                return type != null && Map.class.isAssignableFrom(type);
+            }
+            if (resolverClass == ResourceBundleELResolver.class) {
+                return type != null && ResourceBundle.class.isAssignableFrom(type);
+            }
+            return true;
+        }
+    }
+
 }
@@ -17,9 +17,7 @@
 
 package javax.el;
 
-import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map;
 
 /**
  *
@@ -28,7 +26,16 @@ public abstract class ELContext {
 
     private Locale locale;
 
-    private Map<Class<?>, Object> map;
+    /*
+     * Only a handful of context objects (JspContext, FacesContext...) are ever
+     * put into an ELContext, and they are looked up on nearly every resolution,
+     * so they are kept in small parallel arrays and found by identity.
+     */
+    private Class<?>[] keys;
+
+    private Object[] contexts;
+
+    private int size;
 
     private boolean resolved;
 
@@ -40,10 +47,13 @@ public abstract class ELContext {
     }
 
     public Object getContext(Class key) {
-        if (this.map == null) {
-            return null;
+        Class<?>[] keys = this.keys;
+        for (int i = 0; i < this.size; i++) {
+            if (keys[i] == key) {
+                return this.contexts[i];
+            }
         }
-        return this.map.get(key);
+        return null;
     }
 
     public void putContext(Class key, Object contextObject) throws NullPointerException {
@@ -51,11 +61,26 @@ public abstract class ELContext {
             throw new NullPointerException();
         }
 
-        if (this.map == null) {
-            this.map = new HashMap<Class<?>, Object>();
+        for (int i = 0; i < this.size; i++) {
+            if (this.keys[i] == key) {
+                this.contexts[i] = contextObject;
+                return;
+            }
         }
-
-        this.map.put(key, contextObject);
+        if (this.keys == null) {
+            this.keys = new Class<?>[4];
+            this.contexts = new Object[4];
+        } else if (this.size == this.keys.length) {
+            Class<?>[] newKeys = new Class<?>[this.size * 2];
+            Object[] newContexts = new Object[this.size * 2];
+            System.arraycopy(this.keys, 0, newKeys, 0, this.size);
+            System.arraycopy(this.contexts, 0, newContexts, 0, this.size);
+            this.keys = newKeys;
+            this.contexts = newContexts;
+        }
+        this.keys[this.size] = key;
+        this.contexts[this.size] = contextObject;
+        this.size++;
     }
 
     public void setPropertyResolved(boolean resolved) {
@@ -17,22 +17,66 @@
 
 package javax.el;
 
-class ELUtils {
+import org.apache.geronimo.specs.el.ExpressionFactoryCache;
 
-    private static volatile ExpressionFactory cachedExpressionFactory;
+class ELUtils {
 
     private static boolean cachedExpressionFactoryEnabled = Boolean.valueOf(System.getProperty("org.apache.geronimo.spec.el.useCachedExpressionFactory", "true"));
 
+    /*
+     * Each application gets its own factory, and ExpressionFactory.newInstance()
+     * only looks up the implementation class once per context class loader.
+     */
+    private static final WeakIdentityCache<ClassLoader, ExpressionFactory> expressionFactories = new WeakIdentityCache<ClassLoader, ExpressionFactory>();
+
+    private static final WeakIdentityCache<ClassLoader, Class<?>> expressionFactoryClasses = new WeakIdentityCache<ClassLoader, Class<?>>();
+
+    // ExpressionFactoryCache.invalidate() generation the caches were last cleared for
+    private static volatile int generation = ExpressionFactoryCache.getGeneration();
+
     public static ExpressionFactory getCachedExpressionFactory() {
-        return cachedExpressionFactory;
+        checkGeneration();
+        ClassLoader cl = getContextClassLoader();
+        ExpressionFactory expressionFactory = expressionFactories.get(cl);
+        if (expressionFactory == null) {
+            expressionFactory = ExpressionFactory.newInstance();
+            expressionFactories.put(cl, expressionFactory);
+        }
+        return expressionFactory;
     }
 
     public static boolean isCachedExpressionFactoryEnabled() {
         return cachedExpressionFactoryEnabled;
     }
 
-    public static void setCachedExpressionFactory(ExpressionFactory expressionFactory) {
-        cachedExpressionFactory = expressionFactory;
+    public static Class<?> getCachedExpressionFactoryClass(ClassLoader cl) {
+        checkGeneration();
+        return expressionFactoryClasses.get(cl);
+    }
+
+    public static void setCachedExpressionFactoryClass(ClassLoader cl, Class<?> implClass) {
+        expressionFactoryClasses.put(cl, implClass);
+    }
+
+    private static void checkGeneration() {
+        int current = ExpressionFactoryCache.getGeneration();
+        if (current != generation) {
+            synchronized (ELUtils.class) {
+                if (current != generation) {
+                    expressionFactories.clear();
+                    expressionFactoryClasses.clear();
+                    generation = current;
+                }
+            }
+        }
+    }
+
+    public static ClassLoader getContextClassLoader() {
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        if (cl == null) {
+            cl = ClassLoader.getSystemClassLoader();
+        }
+        return cl;
     }
 
     public static String coerceToString(Object obj) {
@@ -37,13 +37,6 @@ public abstract class ExpressionFactory {
 
     private static final String JAVA_RUNTIME_PROPERTY_FILE_LOCATION = "lib" + File.separator + "el.properties";
 
-    static {
-        try {
-            ELUtils.setCachedExpressionFactory(newInstance());
-        } catch (Exception e) {
-        }
-    }
-
     public abstract Object coerceToType(Object obj, Class<?> expectedType) throws ELException;
 
     public abstract ValueExpression createValueExpression(ELContext context, String expression, Class<?> expectedType) throws NullPointerException, ELException;
@@ -118,12 +111,20 @@ public abstract class ExpressionFactory {
 
     private static Class<?> loadExpressionFactoryImplClass() {
 
+        ClassLoader cl = ELUtils.getContextClassLoader();
+        // the configuration is only read once per class loader
+        Class<?> cls = ELUtils.getCachedExpressionFactoryClass(cl);
+        if (cls == null) {
+            cls = loadExpressionFactoryImplClass(cl);
+            ELUtils.setCachedExpressionFactoryClass(cl, cls);
+        }
+        return cls;
+    }
+
+    private static Class<?> loadExpressionFactoryImplClass(ClassLoader cl) {
+
         String implClassName = null;
         try {
-            ClassLoader cl = Thread.currentThread().getContextClassLoader();
-            if (cl == null) {
-                cl = ClassLoader.getSystemClassLoader();
-            }
             // check the META-INF/services defintions first
             Class<?> cls = lookupByServiceEntryURL(cl);
             if (cls != null) {
@@ -41,6 +41,11 @@ public class ResourceBundleELResolver extends ELResolver {
             context.setPropertyResolved(true);
 
             if (property != null) {
+                // containsKey() answers misses from the bundles' key sets,
+                // without building a MissingResourceException
+                if (!((ResourceBundle) base).containsKey(property.toString())) {
+                    return "???" + property.toString() + "???";
+                }
                 try {
                     return ((ResourceBundle) base).getObject(property
                             .toString());
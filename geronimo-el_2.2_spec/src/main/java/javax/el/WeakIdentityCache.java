@@ -0,0 +1,111 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package javax.el;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A concurrent cache keyed by object identity, used for classes and class
+ * loaders so same-named classes from different class loaders get their own
+ * entries.
+ *
+ * Keys are only weakly referenced, and the cached values (which usually
+ * refer to their key) softly, so the cache never prevents an application
+ * from being unloaded. Entries of collected keys are purged on put.
+ */
+class WeakIdentityCache<K, V> {
+
+    private final ConcurrentMap<Object, Reference<V>> entries = new ConcurrentHashMap<Object, Reference<V>>();
+
+    private final ReferenceQueue<K> queue = new ReferenceQueue<K>();
+
+    public V get(K key) {
+        Reference<V> ref = entries.get(new LookupKey(key));
+        return ref == null ? null : ref.get();
+    }
+
+    public void put(K key, V value) {
+        Object stale;
+        while ((stale = queue.poll()) != null) {
+            entries.remove(stale);
+        }
+        entries.put(new WeakKey<K>(key, queue), new SoftReference<V>(value));
+    }
+
+    public void remove(K key) {
+        entries.remove(new LookupKey(key));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private static final class WeakKey<K> extends WeakReference<K> {
+
+        private final int hash;
+
+        WeakKey(K key, ReferenceQueue<K> queue) {
+            super(key, queue);
+            this.hash = System.identityHashCode(key);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            Object key = get();
+            if (key == null) {
+                return false;
+            }
+            if (obj instanceof LookupKey) {
+                return ((LookupKey) obj).key == key;
+            }
+            return obj instanceof WeakKey && ((WeakKey<?>) obj).get() == key;
+        }
+    }
+
+    private static final class LookupKey {
+
+        private final Object key;
+
+        LookupKey(Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(key);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof WeakKey && ((WeakKey<?>) obj).get() == key;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.geronimo.specs.el;
+
+/**
+ * Lets containers discard the ExpressionFactory instances and implementation
+ * classes javax.el caches per context class loader, for instance after the
+ * javax.el.ExpressionFactory system property or an application's
+ * META-INF/services entry changed without its class loader being replaced.
+ * The spec API itself offers no such hook.
+ *
+ * @version $Rev$ $Date$
+ */
+public final class ExpressionFactoryCache {
+
+    private static volatile int generation;
+
+    private ExpressionFactoryCache() {
+    }
+
+    /**
+     * Discard all cached factories and implementation classes, they are looked
+     * up again on next use.
+     */
+    public static synchronized void invalidate() {
+        generation++;
+    }
+
+    /**
+     * @return a number changing on every {@link #invalidate()} call, checked by
+     * javax.el before using its caches
+     */
+    public static int getGeneration() {
+        return generation;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package javax.el;
+
+import java.util.ListResourceBundle;
+import java.util.ResourceBundle;
+
+import junit.framework.TestCase;
+
+/**
+ * @version $Rev$ $Date$
+ */
+public class ResourceBundleELResolverTest extends TestCase {
+    private final ELContext context = new ELContext() {
+        public ELResolver getELResolver() {
+            return null;
+        }
+
+        public FunctionMapper getFunctionMapper() {
+            return null;
+        }
+
+        public VariableMapper getVariableMapper() {
+            return null;
+        }
+    };
+
+    private final ResourceBundleELResolver resolver = new ResourceBundleELResolver();
+
+    public void testHit() {
+        assertEquals("child", resolver.getValue(context, new Child(new Parent()), "key"));
+        assertTrue(context.isPropertyResolved());
+    }
+
+    public void testParentHit() {
+        assertEquals("parent", resolver.getValue(context, new Child(new Parent()), "inherited"));
+        assertTrue(context.isPropertyResolved());
+    }
+
+    public void testMiss() {
+        assertEquals("???missing???", resolver.getValue(context, new Child(new Parent()), "missing"));
+        assertTrue(context.isPropertyResolved());
+    }
+
+    public static class Parent extends ListResourceBundle {
+        protected Object[][] getContents() {
+            return new Object[][] { { "key", "parent" }, { "inherited", "parent" } };
+        }
+    }
+
+    public static class Child extends ListResourceBundle {
+        public Child(ResourceBundle parent) {
+            setParent(parent);
+        }
+
+        protected Object[][] getContents() {
+            return new Object[][] { { "key", "child" } };
+        }
+    }
+}
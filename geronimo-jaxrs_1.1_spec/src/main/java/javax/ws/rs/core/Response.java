@@ -129,13 +129,20 @@ public abstract class Response {
             OTHER
         }
 
-        public static Status fromStatusCode(int statusCode) {
+        // standard codes are all below 600, so a dense table indexed by code replaces the scan
+        private static final Status[] BY_STATUS_CODE = new Status[600];
+
+        static {
             for (Status s : values()) {
-                if (s.getStatusCode() == statusCode) {
-                    return s;
-                }
+                BY_STATUS_CODE[s.statusCode] = s;
+            }
+        }
+
+        public static Status fromStatusCode(int statusCode) {
+            if (statusCode < 0 || statusCode >= BY_STATUS_CODE.length) {
+                return null;
             }
-            return null;
+            return BY_STATUS_CODE[statusCode];
         }
 
         public int getStatusCode() {
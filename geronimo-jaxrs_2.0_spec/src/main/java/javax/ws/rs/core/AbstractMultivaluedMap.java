@@ -20,8 +20,8 @@
 
 package javax.ws.rs.core;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -145,7 +145,8 @@ public abstract class AbstractMultivaluedMap<K, V> implements MultivaluedMap<K,
     protected final List<V> getValues(K key) {
         List<V> l = store.get(key);
         if (l == null) {
-            l = new LinkedList<V>();
+            // most keys, HTTP headers in particular, only ever get a single value
+            l = new ArrayList<V>(1);
             store.put(key, l);
         }
         return l;
@@ -20,13 +20,11 @@
 
 package javax.ws.rs.core;
 
-import javax.ws.rs.ext.RuntimeDelegate;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Map;
 import java.util.TreeMap;
 
-
 @SuppressWarnings("JavaDoc")
 public class MediaType {
 
@@ -34,6 +32,8 @@ public class MediaType {
     private String subtype;
     private Map<String, String> parameters;
 
+    private int hash;
+
 
     public static final String CHARSET_PARAMETER = "charset";
 
@@ -90,7 +90,7 @@ public class MediaType {
 
 
     public static MediaType valueOf(String type) {
-        return RuntimeDelegate.getInstance().createHeaderDelegate(MediaType.class).fromString(type);
+        return MediaTypeCache.get().valueOf(type);
     }
 
     private static TreeMap<String, String> createParametersMap(Map<String, String> initialValues) {
@@ -182,6 +182,9 @@ public class MediaType {
 
 
     public boolean isCompatible(MediaType other) {
+        if (other == this) {
+            return true;
+        }
         return other != null && (type.equals(MEDIA_TYPE_WILDCARD) || other.type.equals(MEDIA_TYPE_WILDCARD) ||
             (type.equalsIgnoreCase(other.type) && (subtype.equals(MEDIA_TYPE_WILDCARD) || other.subtype.equals(MEDIA_TYPE_WILDCARD))) ||
             (type.equalsIgnoreCase(other.type) && this.subtype.equalsIgnoreCase(other.subtype)));
@@ -191,6 +194,9 @@ public class MediaType {
     @SuppressWarnings("UnnecessaryJavaDocLink")
     @Override
     public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
         if (!(obj instanceof MediaType)) {
             return false;
         }
@@ -203,12 +209,17 @@ public class MediaType {
     @SuppressWarnings("UnnecessaryJavaDocLink")
     @Override
     public int hashCode() {
-        return (this.type.toLowerCase() + this.subtype.toLowerCase()).hashCode() + this.parameters.hashCode();
+        int h = hash;
+        if (h == 0) {
+            h = (this.type.toLowerCase() + this.subtype.toLowerCase()).hashCode() + this.parameters.hashCode();
+            hash = h;
+        }
+        return h;
     }
 
 
     @Override
     public String toString() {
-        return RuntimeDelegate.getInstance().createHeaderDelegate(MediaType.class).toString(this);
+        return MediaTypeCache.get().getHeaderDelegate().toString(this);
     }
 }
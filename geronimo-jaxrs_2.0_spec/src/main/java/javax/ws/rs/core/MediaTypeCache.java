@@ -0,0 +1,114 @@
+/*
+ * #%L
+ * Apache Geronimo JAX-RS Spec 2.0
+ * %%
+ * Copyright (C) 2003 - 2014 The Apache Software Foundation
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package javax.ws.rs.core;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.ws.rs.ext.RuntimeDelegate;
+import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
+
+/**
+ * The MediaType header delegate of the current RuntimeDelegate together with the media types
+ * it parsed, so {@link MediaType#valueOf(String)} and {@link MediaType#toString()} neither look
+ * the delegate up again nor re-parse header values seen before. A new RuntimeDelegate starts
+ * a new cache.
+ *
+ * Only plain MediaType instances are kept, those are immutable and can be shared. The cache
+ * holds up to org.apache.geronimo.spec.jaxrs.mediaTypeCacheSize entries (256 by default, 0
+ * disables it) so arbitrary client supplied values cannot make it grow unbounded. Once full,
+ * it drops the entries that were not looked up since the previous sweep, so frequently used
+ * media types stay cached while one-off values come and go.
+ */
+final class MediaTypeCache {
+    private static final int MAX_SIZE = Integer.getInteger("org.apache.geronimo.spec.jaxrs.mediaTypeCacheSize", 256);
+
+    private static volatile MediaTypeCache current;
+
+    private final RuntimeDelegate runtimeDelegate;
+    private final HeaderDelegate<MediaType> headerDelegate;
+    private final ConcurrentMap<String, Entry> mediaTypes = new ConcurrentHashMap<String, Entry>();
+
+    private MediaTypeCache(final RuntimeDelegate runtimeDelegate) {
+        this.runtimeDelegate = runtimeDelegate;
+        this.headerDelegate = runtimeDelegate.createHeaderDelegate(MediaType.class);
+    }
+
+    static MediaTypeCache get() {
+        final RuntimeDelegate runtimeDelegate = RuntimeDelegate.getInstance();
+        MediaTypeCache cache = current;
+        if (cache == null || cache.runtimeDelegate != runtimeDelegate) {
+            cache = new MediaTypeCache(runtimeDelegate);
+            current = cache;
+        }
+        return cache;
+    }
+
+    HeaderDelegate<MediaType> getHeaderDelegate() {
+        return headerDelegate;
+    }
+
+    MediaType valueOf(final String value) {
+        if (MAX_SIZE <= 0 || value == null) {
+            return headerDelegate.fromString(value);
+        }
+        final Entry entry = mediaTypes.get(value);
+        if (entry != null) {
+            if (!entry.used) {
+                entry.used = true;
+            }
+            return entry.mediaType;
+        }
+        final MediaType mediaType = headerDelegate.fromString(value);
+        if (mediaType != null && mediaType.getClass() == MediaType.class
+                && (mediaTypes.size() < MAX_SIZE || evictUnused())) {
+            mediaTypes.putIfAbsent(value, new Entry(mediaType));
+        }
+        return mediaType;
+    }
+
+    // second chance sweep: drops the entries not used since the last sweep and
+    // clears the mark of the others, a value arriving while all are in use is not cached
+    private synchronized boolean evictUnused() {
+        if (mediaTypes.size() < MAX_SIZE) {
+            return true;
+        }
+        for (final Iterator<Entry> it = mediaTypes.values().iterator(); it.hasNext(); ) {
+            final Entry entry = it.next();
+            if (entry.used) {
+                entry.used = false;
+            } else {
+                it.remove();
+            }
+        }
+        return mediaTypes.size() < MAX_SIZE;
+    }
+
+    private static final class Entry {
+        private final MediaType mediaType;
+        private volatile boolean used;
+
+        private Entry(final MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+    }
+}
@@ -503,13 +503,20 @@ public abstract class Response {
         }
 
 
+        // standard codes are all below 600, so a dense table indexed by code replaces the scan
+        private static final Status[] BY_STATUS_CODE = new Status[600];
+
+        static {
+            for (Status s : values()) {
+                BY_STATUS_CODE[s.code] = s;
+            }
+        }
+
         public static Status fromStatusCode(final int statusCode) {
-            for (Status s : Status.values()) {
-                if (s.code == statusCode) {
-                    return s;
-                }
+            if (statusCode < 0 || statusCode >= BY_STATUS_CODE.length) {
+                return null;
             }
-            return null;
+            return BY_STATUS_CODE[statusCode];
         }
     }
 }
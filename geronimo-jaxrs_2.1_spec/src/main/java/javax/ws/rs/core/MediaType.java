@@ -25,8 +25,6 @@ import java.util.Comparator;
 import java.util.Map;
 import java.util.TreeMap;
 
-import javax.ws.rs.ext.RuntimeDelegate;
-
 @SuppressWarnings("JavaDoc")
 public class MediaType {
 
@@ -36,6 +34,8 @@ public class MediaType {
 
     private Map<String, String> parameters;
 
+    private int hash;
+
     public static final String CHARSET_PARAMETER = "charset";
 
     public static final String MEDIA_TYPE_WILDCARD = "*";
@@ -98,7 +98,7 @@ public class MediaType {
     public static final MediaType APPLICATION_JSON_PATCH_JSON_TYPE = new MediaType("application", "json-patch+json");
 
     public static MediaType valueOf(String type) {
-        return RuntimeDelegate.getInstance().createHeaderDelegate(MediaType.class).fromString(type);
+        return MediaTypeCache.get().valueOf(type);
     }
 
     private static TreeMap<String, String> createParametersMap(Map<String, String> initialValues) {
@@ -179,6 +179,9 @@ public class MediaType {
     }
 
     public boolean isCompatible(MediaType other) {
+        if (other == this) {
+            return true;
+        }
         return other != null && // return false if other is null, else
                 (type.equals(MEDIA_TYPE_WILDCARD) || other.type.equals(MEDIA_TYPE_WILDCARD) || // both are wildcard types, or
                         (type.equalsIgnoreCase(other.type)
@@ -191,6 +194,9 @@ public class MediaType {
     @SuppressWarnings("UnnecessaryJavaDocLink")
     @Override
     public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
         if (!(obj instanceof MediaType)) {
             return false;
         }
@@ -203,11 +209,16 @@ public class MediaType {
     @SuppressWarnings("UnnecessaryJavaDocLink")
     @Override
     public int hashCode() {
-        return (this.type.toLowerCase() + this.subtype.toLowerCase()).hashCode() + this.parameters.hashCode();
+        int h = hash;
+        if (h == 0) {
+            h = (this.type.toLowerCase() + this.subtype.toLowerCase()).hashCode() + this.parameters.hashCode();
+            hash = h;
+        }
+        return h;
     }
 
     @Override
     public String toString() {
-        return RuntimeDelegate.getInstance().createHeaderDelegate(MediaType.class).toString(this);
+        return MediaTypeCache.get().getHeaderDelegate().toString(this);
     }
 }
@@ -25,7 +25,11 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Constructor;
+import java.util.Map;
 import java.util.Properties;
+import java.util.WeakHashMap;
 import java.util.logging.Logger;
 
 import javax.ws.rs.client.ClientBuilder;
@@ -40,13 +44,42 @@ final class SseFinder {
 
     private static final String SERVICE_ID = "META-INF/services/" + FACTORY_ID;
 
+    private static final Map<ClassLoader, Entry> CACHE = new WeakHashMap<ClassLoader, Entry>();
+
+    /**
+     * Create a new instance of the implementation for the thread context class loader.
+     * The discovery only runs on the first call for a loader, the resolved constructor is kept
+     * until the loader goes away or the system property used as last resort changes.
+     */
     static Object find(final String defaultClazz) throws ClassNotFoundException {
         final ClassLoader classLoader = getContextClassLoader();
+        final String systemProp = getSystemProperty();
+
+        Entry entry;
+        synchronized (CACHE) {
+            entry = CACHE.get(classLoader);
+        }
+        Constructor<?> constructor = entry != null && entry.matches(systemProp) ? entry.constructor.get() : null;
+        if (constructor == null) {
+            constructor = findConstructor(defaultClazz, classLoader, systemProp);
+            synchronized (CACHE) {
+                CACHE.put(classLoader, new Entry(constructor, systemProp));
+            }
+        }
+
+        try {
+            return constructor.newInstance();
+        } catch (final Exception x) {
+            throw new ClassNotFoundException(x.getMessage(), x);
+        }
+    }
 
+    private static Constructor<?> findConstructor(final String defaultClazz, final ClassLoader classLoader,
+                                                  final String systemProp) throws ClassNotFoundException {
         try {
-            final Object delegate = ProviderLocator.getService(FACTORY_ID, ClientBuilder.class, classLoader);
+            final Class<?> delegate = ProviderLocator.getServiceClass(FACTORY_ID, ClientBuilder.class, classLoader);
             if (delegate != null) {
-                return delegate;
+                return delegate.getConstructor();
             }
 
             InputStream is;
@@ -61,7 +94,7 @@ final class SseFinder {
                 final String factoryClassName = rd.readLine();
                 rd.close();
                 if (factoryClassName != null && !"".equals(factoryClassName)) {
-                    return newInstance(factoryClassName, classLoader);
+                    return loadConstructor(factoryClassName, classLoader);
                 }
             }
         } catch (final Exception ex) {
@@ -75,35 +108,39 @@ final class SseFinder {
                 final Properties props = new Properties();
                 props.load(new FileInputStream(f));
                 final String factoryClassName = props.getProperty(FACTORY_ID);
-                return newInstance(factoryClassName, classLoader);
+                return loadConstructor(factoryClassName, classLoader);
             }
         } catch (final Exception ex) {
             LOGGER.finest(ex.getMessage());
         }
 
-        try {
-            final String systemProp = System.getProperty(FACTORY_ID);
-            if (systemProp != null) {
-                return newInstance(systemProp, classLoader);
-            }
-        } catch (final SecurityException se) {
-            LOGGER.finest(se.getMessage());
+        if (systemProp != null) {
+            return loadConstructor(systemProp, classLoader);
         }
 
         if (defaultClazz == null) {
             throw new ClassNotFoundException(FACTORY_ID + " not found", null);
         }
 
-        return newInstance(defaultClazz, classLoader);
+        return loadConstructor(defaultClazz, classLoader);
     }
 
     static ClassLoader getContextClassLoader() {
         return Thread.currentThread().getContextClassLoader();
     }
 
-    private static Object newInstance(final String className, final ClassLoader classLoader) throws ClassNotFoundException {
+    private static String getSystemProperty() {
+        try {
+            return System.getProperty(FACTORY_ID);
+        } catch (final SecurityException se) {
+            LOGGER.finest(se.getMessage());
+            return null;
+        }
+    }
+
+    private static Constructor<?> loadConstructor(final String className, final ClassLoader classLoader) throws ClassNotFoundException {
         try {
-            Class spiClass;
+            Class<?> spiClass;
             if (classLoader == null) {
                 spiClass = Class.forName(className);
             } else {
@@ -114,7 +151,7 @@ final class SseFinder {
                     spiClass = Class.forName(className);
                 }
             }
-            return spiClass.getConstructor().newInstance();
+            return spiClass.getConstructor();
         } catch (final ClassNotFoundException x) {
             throw x;
         } catch (final Exception x) {
@@ -125,4 +162,19 @@ final class SseFinder {
     private SseFinder() {
         // no-op
     }
+
+    private static final class Entry {
+        // soft so the cache does not pin the implementation class, and with it the key loader
+        private final SoftReference<Constructor<?>> constructor;
+        private final String systemProperty;
+
+        private Entry(final Constructor<?> constructor, final String systemProperty) {
+            this.constructor = new SoftReference<Constructor<?>>(constructor);
+            this.systemProperty = systemProperty;
+        }
+
+        private boolean matches(final String systemProperty) {
+            return this.systemProperty == null ? systemProperty == null : this.systemProperty.equals(systemProperty);
+        }
+    }
 }
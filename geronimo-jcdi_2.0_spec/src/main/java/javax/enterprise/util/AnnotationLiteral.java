@@ -21,12 +21,9 @@ package javax.enterprise.util;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AccessibleObject;
-import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.security.AccessController;
 import java.security.PrivilegedAction;
-import java.util.Arrays;
 
 /**
  * Annotation literal utility.
@@ -42,11 +39,9 @@ public abstract class AnnotationLiteral<T extends Annotation> implements Annotat
     private Class<T> annotationType;
 
     // cached values
-    private transient Method[] _meths;
+    private transient AnnotationMembers _members;
     private transient String _toString;
     private transient Integer _hashCode;
-    
-    private static final Object[] EMPTY_OBJECT_ARRAY = new Object[0];
 
     protected AnnotationLiteral()
     {
@@ -105,136 +100,37 @@ public abstract class AnnotationLiteral<T extends Annotation> implements Annotat
     @Override
     public boolean equals(Object other)
     {
-        // use a private reference to prevent instance swapping as we don't use synchronization nor volatile on meths.
-        Method[] methods = getMethods();
-
         if(other == this)
         {
             return true;
         }
-        
-        if(other == null)
+
+        if (!(other instanceof Annotation))
         {
             return false;
         }
-        
-        if (other instanceof Annotation)
-        {
-            Annotation annotOther = (Annotation) other;
-            if (this.annotationType().equals(annotOther.annotationType()))
-            {
-                for (Method method : methods)
-                {
-                    Object value = callMethod(this, method);
-                    Object annotValue = callMethod(annotOther, method);
-                    
-                    if((value == null && annotValue != null) || (value != null && annotValue == null))
-                    {
-                        return false;
-                    }
-                    
-                    if(value == null)
-                    {
-                        continue;
-                    }
-                    
-                    Class<?> valueClass = value.getClass();
-                    Class<?> annotValueClass = annotValue.getClass();
-                    
-                    if(valueClass.isPrimitive() && annotValueClass.isPrimitive())
-                    {
-                        if((valueClass != Float.TYPE && annotValue != Float.TYPE)
-                                || (valueClass != Double.TYPE && annotValue != Double.TYPE))
-                        {
-                            if(value != annotValue)
-                            {
-                                return false;
-                            }
-                            
-                        }
-                    }
-                    else if(valueClass.isArray() && annotValueClass.isArray())
-                    {
-                        Class<?> type = valueClass.getComponentType();
-                        if(type.isPrimitive())
-                        {
-                            if(Long.TYPE == type)
-                            {
-                                if(!Arrays.equals(((Long[])value),(Long[])annotValue)) return false;
-                            }
-                            else if(Integer.TYPE == type)
-                            {
-                                if(!Arrays.equals(((Integer[])value),(Integer[])annotValue)) return false;
-                            }
-                            else if(Short.TYPE == type)
-                            {
-                                if(!Arrays.equals(((Short[])value),(Short[])annotValue)) return false;
-                            }
-                            else if(Double.TYPE == type)
-                            {
-                                if(!Arrays.equals(((Double[])value),(Double[])annotValue)) return false;
-                            }
-                            else if(Float.TYPE == type)
-                            {
-                                if(!Arrays.equals(((Float[])value),(Float[])annotValue)) return false;
-                            }
-                            else if(Boolean.TYPE == type)
-                            {
-                                if(!Arrays.equals(((Boolean[])value),(Boolean[])annotValue)) return false;
-                            }
-                            else if(Byte.TYPE == type)
-                            {
-                                if(!Arrays.equals(((Byte[])value),(Byte[])annotValue)) return false;
-                            }
-                            else if(Character.TYPE == type)
-                            {
-                                if(!Arrays.equals(((Character[])value),(Character[])annotValue)) return false;
-                            }                    
-                        }
-                        else
-                        {
-                            if(!Arrays.equals(((Object[])value),(Object[])annotValue)) return false;
-                        }
-                    }
-                    
-                    else if (annotValue != null)
-                    {
-                        if (!value.equals(annotValue))
-                        {
-                            return false;
-                        }
-                    } 
 
-                }
-                
-                return true;
-            }
+        Annotation annotOther = (Annotation) other;
+        if (!this.annotationType().equals(annotOther.annotationType()))
+        {
+            return false;
         }
 
-        return false;
-    }
-
-    private Object callMethod(Object instance, Method method)
-    {
-        boolean access = method.isAccessible();
+        // literals cache their hash code, so different ones are mostly told apart without reading members
+        if (other instanceof AnnotationLiteral && hashCode() != other.hashCode())
+        {
+            return false;
+        }
 
-        try
+        AnnotationMembers members = getMembers();
+        for (int i = 0; i < members.size(); i++)
         {
-            if (!method.isAccessible())
+            if (!members.valueEquals(i, members.value(this, i), members.value(annotOther, i)))
             {
-                AccessController.doPrivileged(new PrivilegedActionForAccessibleObject(method, true));
+                return false;
             }
-
-            return method.invoke(instance, EMPTY_OBJECT_ARRAY);
-        }
-        catch (Exception e)
-        {
-            throw new RuntimeException("Exception in method call : " + method.getName(), e);
-        }
-        finally
-        {
-            AccessController.doPrivileged(new PrivilegedActionForAccessibleObject(method, access));
         }
+        return true;
     }
 
     @Override
@@ -243,65 +139,17 @@ public abstract class AnnotationLiteral<T extends Annotation> implements Annotat
         if (_hashCode != null) {
             return _hashCode;
         }
-        Method[] methods = getMethods();
+        AnnotationMembers members = getMembers();
 
         int hashCode = 0;
-        for (Method method : methods)
+        for (int i = 0; i < members.size(); i++)
         {
             // Member name
-            int name = 127 * method.getName().hashCode();
+            int name = 127 * members.name(i).hashCode();
 
             // Member value
-            Object object = callMethod(this, method);
-            int value = 0;
-            if(object.getClass().isArray())
-            {
-                Class<?> type = object.getClass().getComponentType();
-                if(type.isPrimitive())
-                {
-                    if(Long.TYPE == type)
-                    {
-                        value = Arrays.hashCode((Long[])object);
-                    }
-                    else if(Integer.TYPE == type)
-                    {
-                        value = Arrays.hashCode((Integer[])object);
-                    }
-                    else if(Short.TYPE == type)
-                    {
-                        value = Arrays.hashCode((Short[])object);
-                    }
-                    else if(Double.TYPE == type)
-                    {
-                        value = Arrays.hashCode((Double[])object);
-                    }
-                    else if(Float.TYPE == type)
-                    {
-                        value = Arrays.hashCode((Float[])object);
-                    }
-                    else if(Boolean.TYPE == type)
-                    {
-                        value = Arrays.hashCode((Long[])object);
-                    }
-                    else if(Byte.TYPE == type)
-                    {
-                        value = Arrays.hashCode((Byte[])object);
-                    }
-                    else if(Character.TYPE == type)
-                    {
-                        value = Arrays.hashCode((Character[])object);
-                    }                    
-                }
-                else
-                {
-                    value = Arrays.hashCode((Object[])object);
-                }
-            }
-            else
-            {
-                value = object.hashCode();
-            }
-            
+            int value = members.valueHashCode(i, members.value(this, i));
+
             hashCode += name ^ value;
         }
         _hashCode = hashCode;
@@ -316,17 +164,17 @@ public abstract class AnnotationLiteral<T extends Annotation> implements Annotat
             return _toString;
         }
 
-        Method[] methods = getMethods();
+        AnnotationMembers members = getMembers();
         StringBuilder sb = new StringBuilder("@" + annotationType().getName() + "(");
-        int lenght = methods.length;
+        int lenght = members.size();
 
         for (int i = 0; i < lenght; i++)
         {
             // Member name
-            sb.append(methods[i].getName()).append("=");
+            sb.append(members.name(i)).append("=");
 
             // Member value
-            sb.append(callMethod(this, methods[i]));
+            sb.append(members.value(this, i));
 
             if (i < lenght - 1)
             {
@@ -340,13 +188,12 @@ public abstract class AnnotationLiteral<T extends Annotation> implements Annotat
         return _toString;
     }
 
-    private Method[] getMethods() {
-        if (_meths == null) {
-            // no need to have meths volatile nor synchronized.
-            // if invoked in parallel we only might call getMethods() a bit too often.
-            _meths = (Method[]) AccessController.doPrivileged((PrivilegedAction) () -> annotationType.getDeclaredMethods());
+    private AnnotationMembers getMembers() {
+        if (_members == null) {
+            // no need to have members volatile nor synchronized, they are shared per annotation type anyway.
+            _members = AnnotationMembers.of(annotationType);
         }
-        return _meths;
+        return _members;
     }
 
     protected static class PrivilegedActionForAccessibleObject implements PrivilegedAction<Object> 
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package javax.enterprise.util;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Method;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Member metadata of an annotation type, shared by all literals of that type.
+ *
+ * Members are looked up and made accessible once and read through method handles,
+ * and for array members the matching Arrays.equals / Arrays.hashCode variant is
+ * chosen up front.
+ *
+ * @version $Rev$ $Date$
+ */
+final class AnnotationMembers
+{
+    private static final Map<Class<?>, SoftReference<AnnotationMembers>> CACHE = new WeakHashMap<>();
+
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Annotation.class);
+
+    private static final int OBJECT = 0;
+    private static final int OBJECT_ARRAY = 1;
+    private static final int BOOLEAN_ARRAY = 2;
+    private static final int BYTE_ARRAY = 3;
+    private static final int CHAR_ARRAY = 4;
+    private static final int SHORT_ARRAY = 5;
+    private static final int INT_ARRAY = 6;
+    private static final int LONG_ARRAY = 7;
+    private static final int FLOAT_ARRAY = 8;
+    private static final int DOUBLE_ARRAY = 9;
+
+    private final Method[] methods;
+    private final MethodHandle[] getters;
+    private final int[] kinds;
+
+    private AnnotationMembers(final Class<? extends Annotation> annotationType)
+    {
+        methods = AccessController.doPrivileged((PrivilegedAction<Method[]>) () ->
+        {
+            Method[] declared = annotationType.getDeclaredMethods();
+            for (Method method : declared)
+            {
+                // annotation types may well not be public
+                method.setAccessible(true);
+            }
+            return declared;
+        });
+        getters = new MethodHandle[methods.length];
+        kinds = new int[methods.length];
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (int i = 0; i < methods.length; i++)
+        {
+            try
+            {
+                // the methods are accessible already, so any lookup can unreflect them
+                getters[i] = lookup.unreflect(methods[i]).asType(GETTER);
+            }
+            catch (IllegalAccessException e)
+            {
+                throw new IllegalStateException("Can't access annotation member " + methods[i].getName(), e);
+            }
+            kinds[i] = kindOf(methods[i].getReturnType());
+        }
+    }
+
+    static AnnotationMembers of(Class<? extends Annotation> annotationType)
+    {
+        AnnotationMembers members;
+        synchronized (CACHE)
+        {
+            SoftReference<AnnotationMembers> ref = CACHE.get(annotationType);
+            members = ref != null ? ref.get() : null;
+        }
+        if (members == null)
+        {
+            members = new AnnotationMembers(annotationType);
+            synchronized (CACHE)
+            {
+                CACHE.put(annotationType, new SoftReference<>(members));
+            }
+        }
+        return members;
+    }
+
+    int size()
+    {
+        return methods.length;
+    }
+
+    String name(int member)
+    {
+        return methods[member].getName();
+    }
+
+    Object value(Annotation instance, int member)
+    {
+        try
+        {
+            return (Object) getters[member].invokeExact(instance);
+        }
+        catch (Throwable e)
+        {
+            throw new RuntimeException("Exception in method call : " + methods[member].getName(), e);
+        }
+    }
+
+    boolean valueEquals(int member, Object value, Object other)
+    {
+        if (value == null || other == null)
+        {
+            return value == other;
+        }
+        switch (kinds[member])
+        {
+            case OBJECT_ARRAY:
+                return other instanceof Object[] && Arrays.equals((Object[]) value, (Object[]) other);
+            case BOOLEAN_ARRAY:
+                return other instanceof boolean[] && Arrays.equals((boolean[]) value, (boolean[]) other);
+            case BYTE_ARRAY:
+                return other instanceof byte[] && Arrays.equals((byte[]) value, (byte[]) other);
+            case CHAR_ARRAY:
+                return other instanceof char[] && Arrays.equals((char[]) value, (char[]) other);
+            case SHORT_ARRAY:
+                return other instanceof short[] && Arrays.equals((short[]) value, (short[]) other);
+            case INT_ARRAY:
+                return other instanceof int[] && Arrays.equals((int[]) value, (int[]) other);
+            case LONG_ARRAY:
+                return other instanceof long[] && Arrays.equals((long[]) value, (long[]) other);
+            case FLOAT_ARRAY:
+                return other instanceof float[] && Arrays.equals((float[]) value, (float[]) other);
+            case DOUBLE_ARRAY:
+                return other instanceof double[] && Arrays.equals((double[]) value, (double[]) other);
+            default:
+                return value.equals(other);
+        }
+    }
+
+    int valueHashCode(int member, Object value)
+    {
+        if (value == null)
+        {
+            return 0;
+        }
+        switch (kinds[member])
+        {
+            case OBJECT_ARRAY:
+                return Arrays.hashCode((Object[]) value);
+            case BOOLEAN_ARRAY:
+                return Arrays.hashCode((boolean[]) value);
+            case BYTE_ARRAY:
+                return Arrays.hashCode((byte[]) value);
+            case CHAR_ARRAY:
+                return Arrays.hashCode((char[]) value);
+            case SHORT_ARRAY:
+                return Arrays.hashCode((short[]) value);
+            case INT_ARRAY:
+                return Arrays.hashCode((int[]) value);
+            case LONG_ARRAY:
+                return Arrays.hashCode((long[]) value);
+            case FLOAT_ARRAY:
+                return Arrays.hashCode((float[]) value);
+            case DOUBLE_ARRAY:
+                return Arrays.hashCode((double[]) value);
+            default:
+                return value.hashCode();
+        }
+    }
+
+    private static int kindOf(Class<?> type)
+    {
+        if (!type.isArray())
+        {
+            return OBJECT;
+        }
+        Class<?> component = type.getComponentType();
+        if (!component.isPrimitive())
+        {
+            return OBJECT_ARRAY;
+        }
+        if (component == Boolean.TYPE)
+        {
+            return BOOLEAN_ARRAY;
+        }
+        if (component == Byte.TYPE)
+        {
+            return BYTE_ARRAY;
+        }
+        if (component == Character.TYPE)
+        {
+            return CHAR_ARRAY;
+        }
+        if (component == Short.TYPE)
+        {
+            return SHORT_ARRAY;
+        }
+        if (component == Integer.TYPE)
+        {
+            return INT_ARRAY;
+        }
+        if (component == Long.TYPE)
+        {
+            return LONG_ARRAY;
+        }
+        if (component == Float.TYPE)
+        {
+            return FLOAT_ARRAY;
+        }
+        return DOUBLE_ARRAY;
+    }
+}
@@ -46,6 +46,7 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.lang.ref.SoftReference;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -57,6 +58,7 @@ import java.util.Collection;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * JsonProvider is the actual implementation of all the Json logic.
@@ -72,19 +74,19 @@ import java.util.Map;
 public abstract class JsonProvider {
     private static final String DEFAULT_PROVIDER = "org.apache.johnzon.core.JsonProviderImpl";
 
+    private static final Cache CACHE = new Cache();
+
     protected JsonProvider() {
         // no-op
     }
 
+    /**
+     * Resolve the provider for the thread context class loader.
+     * The result is cached per class loader so the {@link javax.json.Json} factory
+     * methods can be called on hot paths without repeating the discovery.
+     */
     public static JsonProvider provider() {
-        if (System.getSecurityManager() != null) {
-            return AccessController.doPrivileged(new PrivilegedAction<JsonProvider>() {
-                public JsonProvider run() {
-                    return doLoadProvider();
-                }
-            });
-        }
-        return doLoadProvider();
+        return CACHE.get();
     }
 
     private static JsonProvider doLoadProvider() throws JsonException {
@@ -385,5 +387,53 @@ public abstract class JsonProvider {
     public JsonMergePatch createMergeDiff(JsonValue source, JsonValue target) {
         throw new UnsupportedOperationException();
     }
-}
 
+    private static class Cache {
+        // the provider class usually belongs to the key loader, so the value must not pin it;
+        // a soft reference keeps the provider across collections unless memory runs low
+        private final WeakHashMap<ClassLoader, SoftReference<JsonProvider>> cachingProviders = new WeakHashMap<ClassLoader, SoftReference<JsonProvider>>();
+
+        private JsonProvider get() { // in term of synchro we don't prevent to load multiple times the provider
+            ClassLoader key = Thread.currentThread().getContextClassLoader();
+            if (key == null) {
+                key = ClassLoader.getSystemClassLoader();
+            }
+
+            // WeakHashMap.get() expunges cleared entries, so even lookups must be exclusive
+            final SoftReference<JsonProvider> reference;
+            synchronized (cachingProviders) {
+                reference = cachingProviders.get(key);
+            }
+
+            JsonProvider provider = null;
+            if (reference != null) {
+                provider = reference.get();
+            }
+            if (provider != null) {
+                return provider;
+            }
+
+            if (System.getSecurityManager() != null) {
+                provider = AccessController.doPrivileged(new PrivilegedAction<JsonProvider>() {
+                    public JsonProvider run() {
+                        return doLoadProvider();
+                    }
+                });
+            } else {
+                provider = doLoadProvider();
+            }
+
+            synchronized (cachingProviders) {
+                final SoftReference<JsonProvider> existing = cachingProviders.get(key);
+                final JsonProvider p = existing != null ? existing.get() : null;
+                if (p != null) {
+                    provider = p;
+                } else {
+                    cachingProviders.put(key, new SoftReference<JsonProvider>(provider));
+                }
+            }
+
+            return provider;
+        }
+    }
+}
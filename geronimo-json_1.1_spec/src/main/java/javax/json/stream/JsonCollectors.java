@@ -17,17 +17,29 @@
 
 package javax.json.stream;
 
-import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonArrayBuilder;
+import javax.json.JsonBuilderFactory;
 import javax.json.JsonObject;
 import javax.json.JsonObjectBuilder;
 import javax.json.JsonValue;
+import javax.json.spi.JsonProvider;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collector;
 
+/**
+ * Collectors building JSON values out of streams.
+ * Each collector resolves its {@link JsonBuilderFactory} once, when it is created,
+ * rather than looking the provider up for every builder. None of them can declare
+ * any {@link Collector.Characteristics}: the builders are neither thread safe nor
+ * the final result, and element order is significant for arrays.
+ */
 public final class JsonCollectors {
 
     private JsonCollectors() {
@@ -36,16 +48,16 @@ public final class JsonCollectors {
 
 
     public static Collector<JsonValue, JsonArrayBuilder, JsonArray> toJsonArray() {
-
-        return Collector.of(Json::createArrayBuilder,
+        final JsonBuilderFactory factory = builderFactory();
+        return Collector.of(factory::createArrayBuilder,
                             JsonArrayBuilder::add,
                             JsonArrayBuilder::addAll,
                             JsonArrayBuilder::build);
     }
 
     public static Collector<Map.Entry<String, JsonValue>, JsonObjectBuilder, JsonObject> toJsonObject() {
-
-        return Collector.of(Json::createObjectBuilder,
+        final JsonBuilderFactory factory = builderFactory();
+        return Collector.of(factory::createObjectBuilder,
                             JsonCollectors::addEntry,
                             JsonObjectBuilder::addAll,
                             JsonObjectBuilder::build);
@@ -53,8 +65,8 @@ public final class JsonCollectors {
 
     public static Collector<JsonValue, JsonObjectBuilder, JsonObject> toJsonObject(Function<JsonValue, String> keyMapper,
                                                                                    Function<JsonValue, JsonValue> valueMapper) {
-
-        return Collector.of(Json::createObjectBuilder,
+        final JsonBuilderFactory factory = builderFactory();
+        return Collector.of(factory::createObjectBuilder,
                             (b, v) -> b.add(keyMapper.apply(v), valueMapper.apply(v)),
                             JsonObjectBuilder::addAll,
                             JsonObjectBuilder::build);
@@ -62,10 +74,15 @@ public final class JsonCollectors {
 
     public static <T extends JsonArrayBuilder> Collector<JsonValue, Map<String, T>, JsonObject> groupingBy(Function<JsonValue, String> classifier,
                                                                                                            Collector<JsonValue, T, JsonArray> downstream) {
+        final JsonBuilderFactory factory = builderFactory();
+        final Supplier<T> supplier = downstream.supplier();
+        final BiConsumer<T, JsonValue> accumulator = downstream.accumulator();
+        final BinaryOperator<T> combiner = downstream.combiner();
+        final Function<T, JsonArray> finisher = downstream.finisher();
         return Collector.of(HashMap::new,
-                            (map, value) -> accumulator(map, value, classifier, downstream),
-                            JsonCollectors::combiner,
-                            m -> finisher(m, downstream.finisher()));
+                            (map, value) -> accumulator.accept(map.computeIfAbsent(classifier.apply(value), k -> supplier.get()), value),
+                            (target, source) -> combine(target, source, combiner),
+                            m -> finish(m, finisher, factory));
     }
 
     public static Collector<JsonValue, Map<String, JsonArrayBuilder>, JsonObject> groupingBy(Function<JsonValue, String> classifier) {
@@ -73,32 +90,34 @@ public final class JsonCollectors {
     }
 
 
-    private static void addEntry(JsonObjectBuilder objectBuilder, Map.Entry<String, JsonValue> entry) {
-        objectBuilder.add(entry.getKey(), entry.getValue());
+    private static JsonBuilderFactory builderFactory() {
+        return JsonProvider.provider().createBuilderFactory(Collections.<String, Object>emptyMap());
     }
 
-    private static <T extends JsonArrayBuilder> void accumulator(Map<String, T> map,
-                                                                 JsonValue value,
-                                                                 Function<JsonValue, String> classifier,
-                                                                 Collector<JsonValue, T, JsonArray> downstream) {
-
-        String key = classifier.apply(value);
-        T arrayBuilder = map.computeIfAbsent(key, k -> downstream.supplier().get());
-        downstream.accumulator().accept(arrayBuilder, value);
+    private static void addEntry(JsonObjectBuilder objectBuilder, Map.Entry<String, JsonValue> entry) {
+        objectBuilder.add(entry.getKey(), entry.getValue());
     }
 
-    private static <T extends JsonArrayBuilder> Map<String, T> combiner(Map<String, T> target, Map<String, T> source) {
-        target.putAll(source);
-        return target;
+    // merge the smaller partial result into the larger one, combining the groups present in both
+    // while keeping the elements of the left (earlier) result first
+    private static <T extends JsonArrayBuilder> Map<String, T> combine(Map<String, T> left,
+                                                                       Map<String, T> right,
+                                                                       BinaryOperator<T> combiner) {
+        if (right.size() > left.size()) {
+            left.forEach((key, value) -> right.merge(key, value, (r, l) -> combiner.apply(l, r)));
+            return right;
+        }
+        right.forEach((key, value) -> left.merge(key, value, combiner));
+        return left;
     }
 
-    private static <T extends JsonArrayBuilder> JsonObject finisher(Map<String, T> arrayBuilders,
-                                                                    Function<T, JsonArray> downstream) {
+    private static <T extends JsonArrayBuilder> JsonObject finish(Map<String, T> arrayBuilders,
+                                                                  Function<T, JsonArray> downstream,
+                                                                  JsonBuilderFactory factory) {
 
-        JsonObjectBuilder builder = Json.createObjectBuilder();
+        JsonObjectBuilder builder = factory.createObjectBuilder();
         arrayBuilders.forEach((key, value) -> builder.add(key, downstream.apply(value)));
 
         return builder.build();
     }
 }
-
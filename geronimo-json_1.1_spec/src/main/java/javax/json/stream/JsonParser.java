@@ -52,34 +52,84 @@ public interface JsonParser extends Closeable {
         END_OBJECT, END_ARRAY
     }
     
+    /**
+     * Read the object the parser has just started, leaving the parser on its END_OBJECT event.
+     * Must be called right after a START_OBJECT event.
+     *
+     * @since 1.1
+     */
     default JsonObject getObject() {
-        throw new UnsupportedOperationException();
+        return JsonParserSupport.readObject(this);
     }
 
+    /**
+     * Implementations have to override this method as the current event is not available
+     * to a default implementation.
+     *
+     * @since 1.1
+     */
     default JsonValue getValue() {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Read the array the parser has just started, leaving the parser on its END_ARRAY event.
+     * Must be called right after a START_ARRAY event.
+     *
+     * @since 1.1
+     */
     default JsonArray getArray() {
-        throw new UnsupportedOperationException();
+        return JsonParserSupport.readArray(this);
     }
 
+    /**
+     * Lazily stream the elements of the array the parser has just started.
+     * Elements are only read from the parser when the stream pulls them.
+     *
+     * @since 1.1
+     */
     default Stream<JsonValue> getArrayStream() {
-        throw new UnsupportedOperationException();
+        return JsonParserSupport.arrayStream(this);
     }
 
+    /**
+     * Lazily stream the entries of the object the parser has just started.
+     * Entries are only read from the parser when the stream pulls them.
+     *
+     * @since 1.1
+     */
     default Stream<Map.Entry<String,JsonValue>> getObjectStream() {
-        throw new UnsupportedOperationException();
+        return JsonParserSupport.objectStream(this);
     }
 
+    /**
+     * Lazily stream the remaining top level values of the parser.
+     *
+     * @since 1.1
+     */
     default Stream<JsonValue> getValueStream() {
-        throw new UnsupportedOperationException();
+        return JsonParserSupport.valueStream(this);
     }
 
+    /**
+     * Advance the parser to the END_ARRAY event of the array it is in, or do nothing
+     * when the innermost context is not an array.
+     * Only the parser knows that context, a default implementation would have to read
+     * events to find it, so it is left to the implementations.
+     *
+     * @since 1.1
+     */
     default void skipArray() {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Advance the parser to the END_OBJECT event of the object it is in, or do nothing
+     * when the innermost context is not an object.
+     * As for {@link #skipArray()}, this is left to the implementations.
+     *
+     * @since 1.1
+     */
     default void skipObject() {
         throw new UnsupportedOperationException();
     }
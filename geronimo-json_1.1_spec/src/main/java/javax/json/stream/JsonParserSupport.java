@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package javax.json.stream;
+
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+import javax.json.spi.JsonProvider;
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Event based implementations of the {@link JsonParser} default methods.
+ * They only rely on next() and the value accessors so they work with any provider;
+ * streams pull one element from the parser at a time.
+ */
+final class JsonParserSupport {
+    private JsonParserSupport() {
+        // no-op
+    }
+
+    static JsonObject readObject(final JsonParser parser) {
+        return readObject(parser, JsonProvider.provider());
+    }
+
+    static JsonArray readArray(final JsonParser parser) {
+        return readArray(parser, JsonProvider.provider());
+    }
+
+    static Stream<JsonValue> arrayStream(final JsonParser parser) {
+        final JsonProvider provider = JsonProvider.provider();
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<JsonValue>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(final Consumer<? super JsonValue> action) {
+                if (!parser.hasNext()) {
+                    return false;
+                }
+                final JsonParser.Event event = parser.next();
+                if (event == JsonParser.Event.END_ARRAY) {
+                    return false;
+                }
+                action.accept(readValue(parser, event, provider));
+                return true;
+            }
+        }, false);
+    }
+
+    static Stream<Map.Entry<String, JsonValue>> objectStream(final JsonParser parser) {
+        final JsonProvider provider = JsonProvider.provider();
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<Map.Entry<String, JsonValue>>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT) {
+            @Override
+            public boolean tryAdvance(final Consumer<? super Map.Entry<String, JsonValue>> action) {
+                if (!parser.hasNext()) {
+                    return false;
+                }
+                final JsonParser.Event event = parser.next();
+                if (event == JsonParser.Event.END_OBJECT) {
+                    return false;
+                }
+                if (event != JsonParser.Event.KEY_NAME) {
+                    throw new IllegalStateException("Expected a key but got " + event);
+                }
+                final String key = parser.getString();
+                final JsonValue value = readValue(parser, parser.next(), provider);
+                action.accept(new AbstractMap.SimpleImmutableEntry<>(key, value));
+                return true;
+            }
+        }, false);
+    }
+
+    static Stream<JsonValue> valueStream(final JsonParser parser) {
+        final JsonProvider provider = JsonProvider.provider();
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<JsonValue>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(final Consumer<? super JsonValue> action) {
+                if (!parser.hasNext()) {
+                    return false;
+                }
+                action.accept(readValue(parser, parser.next(), provider));
+                return true;
+            }
+        }, false);
+    }
+
+    private static JsonObject readObject(final JsonParser parser, final JsonProvider provider) {
+        final JsonObjectBuilder builder = provider.createObjectBuilder();
+        JsonParser.Event event;
+        while ((event = parser.next()) != JsonParser.Event.END_OBJECT) {
+            if (event != JsonParser.Event.KEY_NAME) {
+                throw new IllegalStateException("Expected a key but got " + event);
+            }
+            final String key = parser.getString();
+            builder.add(key, readValue(parser, parser.next(), provider));
+        }
+        return builder.build();
+    }
+
+    private static JsonArray readArray(final JsonParser parser, final JsonProvider provider) {
+        final JsonArrayBuilder builder = provider.createArrayBuilder();
+        JsonParser.Event event;
+        while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
+            builder.add(readValue(parser, event, provider));
+        }
+        return builder.build();
+    }
+
+    private static JsonValue readValue(final JsonParser parser, final JsonParser.Event event, final JsonProvider provider) {
+        switch (event) {
+            case START_OBJECT:
+                return readObject(parser, provider);
+            case START_ARRAY:
+                return readArray(parser, provider);
+            case VALUE_STRING:
+                return provider.createValue(parser.getString());
+            case VALUE_NUMBER:
+                return provider.createValue(parser.getBigDecimal());
+            case VALUE_TRUE:
+                return JsonValue.TRUE;
+            case VALUE_FALSE:
+                return JsonValue.FALSE;
+            case VALUE_NULL:
+                return JsonValue.NULL;
+            default:
+                throw new IllegalStateException("Expected a value but got " + event);
+        }
+    }
+}
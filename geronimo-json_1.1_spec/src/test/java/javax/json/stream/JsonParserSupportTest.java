@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package javax.json.stream;
+
+import org.junit.Test;
+
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonReader;
+import javax.json.JsonReaderFactory;
+import javax.json.JsonValue;
+import javax.json.JsonWriter;
+import javax.json.JsonWriterFactory;
+import javax.json.spi.JsonProvider;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static javax.json.stream.JsonParser.Event.END_ARRAY;
+import static javax.json.stream.JsonParser.Event.END_OBJECT;
+import static javax.json.stream.JsonParser.Event.KEY_NAME;
+import static javax.json.stream.JsonParser.Event.START_ARRAY;
+import static javax.json.stream.JsonParser.Event.START_OBJECT;
+import static javax.json.stream.JsonParser.Event.VALUE_FALSE;
+import static javax.json.stream.JsonParser.Event.VALUE_NULL;
+import static javax.json.stream.JsonParser.Event.VALUE_TRUE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class JsonParserSupportTest {
+    @Test
+    public void skipArrayFromNestedObject() {
+        // [{"a":[true]},false] with the parser on the key of the nested object
+        final EventParser parser = new EventParser(START_ARRAY, START_OBJECT, KEY_NAME, START_ARRAY, VALUE_TRUE, END_ARRAY,
+                END_OBJECT, VALUE_FALSE, END_ARRAY);
+        parser.skipTo(3);
+        try {
+            parser.skipArray();
+            fail();
+        } catch (final UnsupportedOperationException e) {
+            // the context is unknown to the default method, no event may be consumed
+        }
+        assertEquals(3, parser.position());
+    }
+
+    @Test
+    public void skipObjectFromNestedArray() {
+        // {"a":[{"b":true},false]} with the parser inside the array
+        final EventParser parser = new EventParser(START_OBJECT, KEY_NAME, START_ARRAY, START_OBJECT, KEY_NAME, VALUE_TRUE,
+                END_OBJECT, VALUE_FALSE, END_ARRAY, END_OBJECT);
+        parser.skipTo(3);
+        try {
+            parser.skipObject();
+            fail();
+        } catch (final UnsupportedOperationException e) {
+            // the context is unknown to the default method, no event may be consumed
+        }
+        assertEquals(3, parser.position());
+    }
+
+    @Test
+    public void arrayStream() {
+        // [true,null,false] true
+        final EventParser parser = new EventParser(START_ARRAY, VALUE_TRUE, VALUE_NULL, VALUE_FALSE, END_ARRAY, VALUE_TRUE);
+        parser.skipTo(1);
+        final Iterator<JsonValue> values = parser.getArrayStream().iterator();
+        assertEquals(JsonValue.TRUE, values.next());
+        assertEquals("elements are only read when pulled", 2, parser.position());
+        assertEquals(JsonValue.NULL, values.next());
+        assertEquals(JsonValue.FALSE, values.next());
+        assertFalse(values.hasNext());
+        assertEquals(5, parser.position());
+    }
+
+    @Test
+    public void objectStream() {
+        // {"a":true,"b":null}
+        final EventParser parser = new EventParser(START_OBJECT, KEY_NAME, VALUE_TRUE, KEY_NAME, VALUE_NULL, END_OBJECT);
+        parser.skipTo(1);
+        final List<Map.Entry<String, JsonValue>> entries = parser.getObjectStream().collect(Collectors.toList());
+        assertEquals(2, entries.size());
+        assertEquals("k1", entries.get(0).getKey());
+        assertEquals(JsonValue.TRUE, entries.get(0).getValue());
+        assertEquals("k3", entries.get(1).getKey());
+        assertEquals(JsonValue.NULL, entries.get(1).getValue());
+        assertFalse(parser.hasNext());
+    }
+
+    @Test
+    public void valueStream() {
+        final EventParser parser = new EventParser(VALUE_TRUE, VALUE_FALSE, VALUE_NULL);
+        assertEquals(asList(JsonValue.TRUE, JsonValue.FALSE, JsonValue.NULL), parser.getValueStream().collect(Collectors.toList()));
+        assertEquals(3, parser.position());
+    }
+
+    // replays a fixed list of events, key names are "k" + index of the event
+    private static class EventParser implements JsonParser {
+        private final List<Event> events;
+        private int position;
+
+        private EventParser(final Event... events) {
+            this.events = new ArrayList<Event>(Arrays.asList(events));
+        }
+
+        private void skipTo(final int position) {
+            this.position = position;
+        }
+
+        private int position() {
+            return position;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < events.size();
+        }
+
+        @Override
+        public Event next() {
+            return events.get(position++);
+        }
+
+        @Override
+        public String getString() {
+            return "k" + (position - 1);
+        }
+
+        @Override
+        public boolean isIntegralNumber() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getInt() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getLong() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BigDecimal getBigDecimal() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public JsonLocation getLocation() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            // no-op
+        }
+    }
+
+    // the streams resolve a provider up front, the literal values used here never reach it
+    public static class EventProvider extends JsonProvider {
+        @Override
+        public JsonParser createParser(final Reader reader) {
+            return null;
+        }
+
+        @Override
+        public JsonParser createParser(final InputStream in) {
+            return null;
+        }
+
+        @Override
+        public JsonParserFactory createParserFactory(final Map<String, ?> config) {
+            return null;
+        }
+
+        @Override
+        public JsonGenerator createGenerator(final Writer writer) {
+            return null;
+        }
+
+        @Override
+        public JsonGenerator createGenerator(final OutputStream out) {
+            return null;
+        }
+
+        @Override
+        public JsonGeneratorFactory createGeneratorFactory(final Map<String, ?> config) {
+            return null;
+        }
+
+        @Override
+        public JsonReader createReader(final Reader reader) {
+            return null;
+        }
+
+        @Override
+        public JsonReader createReader(final InputStream in) {
+            return null;
+        }
+
+        @Override
+        public JsonWriter createWriter(final Writer writer) {
+            return null;
+        }
+
+        @Override
+        public JsonWriter createWriter(final OutputStream out) {
+            return null;
+        }
+
+        @Override
+        public JsonWriterFactory createWriterFactory(final Map<String, ?> config) {
+            return null;
+        }
+
+        @Override
+        public JsonReaderFactory createReaderFactory(final Map<String, ?> config) {
+            return null;
+        }
+
+        // JsonValue builds its empty constants through these
+        @Override
+        public JsonObjectBuilder createObjectBuilder() {
+            return nullBuilder(JsonObjectBuilder.class);
+        }
+
+        @Override
+        public JsonArrayBuilder createArrayBuilder() {
+            return nullBuilder(JsonArrayBuilder.class);
+        }
+
+        private static <T> T nullBuilder(final Class<T> type) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> null));
+        }
+
+        @Override
+        public JsonBuilderFactory createBuilderFactory(final Map<String, ?> config) {
+            return null;
+        }
+    }
+}
@@ -29,10 +29,16 @@ public interface JsonbBuilder {
     Jsonb build();
 
     static Jsonb create() {
+        if (SharedJsonb.ENABLED) {
+            return SharedJsonb.get(JsonbProvider.provider(), null);
+        }
         return JsonbProvider.provider().create().build();
     }
 
     static Jsonb create(final JsonbConfig config) {
+        if (SharedJsonb.ENABLED) {
+            return SharedJsonb.get(JsonbProvider.provider(), config);
+        }
         return JsonbProvider.provider().create().withConfig(config).build();
     }
 
@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package javax.json.bind;
+
+import javax.json.bind.spi.JsonbProvider;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Handle on a Jsonb shared by all {@link JsonbBuilder#create()} callers using the same
+ * provider and an equal configuration, so the provider's mapping model is only built once.
+ * Enabled with the org.apache.geronimo.spec.jsonb.shareInstances system property.
+ *
+ * Only configurations made of plain values (strings, booleans, numbers, locales, enums) are
+ * shared. Adapters, serializers and strategies usually are fresh instances comparing by
+ * identity, so such configurations get a Jsonb of their own, as without sharing.
+ *
+ * Closing a handle only invalidates that handle. Shared instances are held strongly and
+ * stay open as long as their provider is in use; they are closed once the provider is
+ * collected, and an instance built concurrently with the one that got shared is closed
+ * right away.
+ */
+final class SharedJsonb implements Jsonb {
+    static final boolean ENABLED = Boolean.getBoolean("org.apache.geronimo.spec.jsonb.shareInstances");
+
+    private static final Map<ProviderKey, ConcurrentMap<Map<String, Object>, Jsonb>> INSTANCES = new HashMap<>();
+    private static final ReferenceQueue<JsonbProvider> COLLECTED = new ReferenceQueue<>();
+
+    private final Jsonb delegate;
+    private volatile boolean closed;
+
+    private SharedJsonb(final Jsonb delegate) {
+        this.delegate = delegate;
+    }
+
+    static Jsonb get(final JsonbProvider provider, final JsonbConfig config) {
+        final Map<String, Object> key = toKey(config);
+        if (key == null) {
+            return build(provider, config);
+        }
+
+        ConcurrentMap<Map<String, Object>, Jsonb> byConfig;
+        synchronized (INSTANCES) {
+            closeCollected();
+            byConfig = INSTANCES.get(new ProviderKey(provider, null, null));
+            if (byConfig == null) {
+                byConfig = new ConcurrentHashMap<>();
+                INSTANCES.put(new ProviderKey(provider, COLLECTED, byConfig), byConfig);
+            }
+        }
+
+        Jsonb jsonb = byConfig.get(key);
+        if (jsonb == null) {
+            // built outside of the map so a slow provider does not block other configurations
+            final Jsonb created = build(provider, config);
+            jsonb = byConfig.putIfAbsent(key, created);
+            if (jsonb == null) {
+                jsonb = created;
+            } else {
+                close(created);
+            }
+        }
+        return new SharedJsonb(jsonb);
+    }
+
+    private static Jsonb build(final JsonbProvider provider, final JsonbConfig config) {
+        final JsonbBuilder builder = provider.create();
+        return (config != null ? builder.withConfig(config) : builder).build();
+    }
+
+    // called under the INSTANCES lock
+    private static void closeCollected() {
+        ProviderKey collected;
+        while ((collected = (ProviderKey) COLLECTED.poll()) != null) {
+            INSTANCES.remove(collected);
+            collected.instances.values().forEach(SharedJsonb::close);
+        }
+    }
+
+    private static void close(final Jsonb unused) {
+        try {
+            unused.close();
+        } catch (final Exception e) {
+            // never handed out, nothing to report to
+        }
+    }
+
+    // null when the configuration holds anything but plain values and can't be shared
+    private static Map<String, Object> toKey(final JsonbConfig config) {
+        final Map<String, Object> key = new HashMap<>();
+        if (config != null) {
+            for (final Map.Entry<String, Object> entry : config.getAsMap().entrySet()) {
+                if (!isValue(entry.getValue())) {
+                    return null;
+                }
+                key.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return key;
+    }
+
+    private static boolean isValue(final Object value) {
+        return value == null || value instanceof String || value instanceof Boolean || value instanceof Character
+                || value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || value instanceof Double || value instanceof Float || value instanceof Locale || value instanceof Enum;
+    }
+
+    private Jsonb delegate() {
+        if (closed) {
+            throw new JsonbException("Jsonb instance is closed");
+        }
+        return delegate;
+    }
+
+    @Override
+    public <T> T fromJson(final String str, final Class<T> type) throws JsonbException {
+        return delegate().fromJson(str, type);
+    }
+
+    @Override
+    public <T> T fromJson(final String str, final Type runtimeType) throws JsonbException {
+        return delegate().fromJson(str, runtimeType);
+    }
+
+    @Override
+    public <T> T fromJson(final Reader reader, final Class<T> type) throws JsonbException {
+        return delegate().fromJson(reader, type);
+    }
+
+    @Override
+    public <T> T fromJson(final Reader reader, final Type runtimeType) throws JsonbException {
+        return delegate().fromJson(reader, runtimeType);
+    }
+
+    @Override
+    public <T> T fromJson(final InputStream stream, final Class<T> type) throws JsonbException {
+        return delegate().fromJson(stream, type);
+    }
+
+    @Override
+    public <T> T fromJson(final InputStream stream, final Type runtimeType) throws JsonbException {
+        return delegate().fromJson(stream, runtimeType);
+    }
+
+    @Override
+    public String toJson(final Object object) throws JsonbException {
+        return delegate().toJson(object);
+    }
+
+    @Override
+    public String toJson(final Object object, final Type runtimeType) throws JsonbException {
+        return delegate().toJson(object, runtimeType);
+    }
+
+    @Override
+    public void toJson(final Object object, final Writer writer) throws JsonbException {
+        delegate().toJson(object, writer);
+    }
+
+    @Override
+    public void toJson(final Object object, final Type runtimeType, final Writer writer) throws JsonbException {
+        delegate().toJson(object, runtimeType, writer);
+    }
+
+    @Override
+    public void toJson(final Object object, final OutputStream stream) throws JsonbException {
+        delegate().toJson(object, stream);
+    }
+
+    @Override
+    public void toJson(final Object object, final Type runtimeType, final OutputStream stream) throws JsonbException {
+        delegate().toJson(object, runtimeType, stream);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    // weak, identity based provider key; the queued key still holds the instances to close
+    private static final class ProviderKey extends WeakReference<JsonbProvider> {
+        private final int hash;
+        private final ConcurrentMap<Map<String, Object>, Jsonb> instances;
+
+        private ProviderKey(final JsonbProvider provider, final ReferenceQueue<JsonbProvider> queue,
+                            final ConcurrentMap<Map<String, Object>, Jsonb> instances) {
+            super(provider, queue);
+            this.hash = System.identityHashCode(provider);
+            this.instances = instances;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ProviderKey)) {
+                return false;
+            }
+            final JsonbProvider provider = get();
+            return provider != null && provider == ((ProviderKey) obj).get();
+        }
+    }
+}
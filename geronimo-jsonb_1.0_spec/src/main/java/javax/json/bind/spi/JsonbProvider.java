@@ -20,27 +20,34 @@ package javax.json.bind.spi;
 
 import javax.json.bind.JsonbBuilder;
 import javax.json.bind.JsonbException;
+import java.lang.ref.SoftReference;
 import java.lang.reflect.Method;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public abstract class JsonbProvider {
     private static final String DEFAULT_PROVIDER = "org.apache.johnzon.jsonb.JohnzonProvider";
 
+    private static final Cache CACHE = new Cache();
+
     public static JsonbProvider provider() {
-        if (System.getSecurityManager() != null) {
-            return AccessController.doPrivileged((PrivilegedAction<JsonbProvider>) () -> doLoadProvider(null));
-        }
-        return doLoadProvider(null);
+        return CACHE.get(null);
     }
 
     public static JsonbProvider provider(final String providerFqn) {
         if (providerFqn == null) {
             throw new IllegalArgumentException();
         }
+        return CACHE.get(providerFqn);
+    }
 
+    private static JsonbProvider loadProvider(final String providerFqn) {
         if (System.getSecurityManager() != null) {
             return AccessController.doPrivileged((PrivilegedAction<JsonbProvider>) () -> doLoadProvider(providerFqn));
         }
@@ -84,6 +91,40 @@ public abstract class JsonbProvider {
         }
     }
 
-
     public abstract JsonbBuilder create();
+
+    /**
+     * Resolved providers per thread context class loader and requested provider name.
+     * Keys are weak so applications can be undeployed, and values are soft as the
+     * provider class usually belongs to the key loader.
+     */
+    private static class Cache {
+        private static final String DEFAULT_KEY = "";
+
+        private final Map<ClassLoader, ConcurrentMap<String, SoftReference<JsonbProvider>>> providers = new WeakHashMap<>();
+
+        private JsonbProvider get(final String providerFqn) { // loading the same provider twice concurrently is harmless
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            if (loader == null) {
+                loader = ClassLoader.getSystemClassLoader();
+            }
+            final String key = providerFqn == null ? DEFAULT_KEY : providerFqn;
+
+            // WeakHashMap.get() expunges cleared entries, so even lookups must be exclusive
+            final ConcurrentMap<String, SoftReference<JsonbProvider>> byName;
+            synchronized (providers) {
+                byName = providers.computeIfAbsent(loader, l -> new ConcurrentHashMap<>());
+            }
+
+            final SoftReference<JsonbProvider> reference = byName.get(key);
+            final JsonbProvider cached = reference != null ? reference.get() : null;
+            if (cached != null) {
+                return cached;
+            }
+
+            final JsonbProvider provider = loadProvider(providerFqn);
+            byName.put(key, new SoftReference<>(provider));
+            return provider;
+        }
+    }
 }
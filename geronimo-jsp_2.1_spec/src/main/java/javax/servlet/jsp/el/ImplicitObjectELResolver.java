@@ -20,14 +20,17 @@ package javax.servlet.jsp.el;
 import java.beans.FeatureDescriptor;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Arrays;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.Vector;
 
 import javax.el.ELContext;
 import javax.el.ELException;
@@ -253,80 +256,64 @@ public class ImplicitObjectELResolver extends ELResolver {
             return this.applicationScope;
         }
 
+        /*
+         * The cookie, header and parameter maps are snapshots taken on first
+         * access, as none of them can change during the lifetime of the page.
+         */
+
         public Map getCookie() {
             if (this.cookie == null) {
-                this.cookie = new ScopeMap() {
-                    protected Enumeration getAttributeNames() {
-                        Cookie[] c = ((HttpServletRequest) page.getRequest())
-                                .getCookies();
-                        if (c != null) {
-                            Vector v = new Vector();
-                            for (int i = 0; i < c.length; i++) {
-                                v.add(c[i].getName());
-                            }
-                            return v.elements();
+                Map<String, Object> cookies = new LinkedHashMap<String, Object>();
+                Cookie[] c = ((HttpServletRequest) page.getRequest())
+                        .getCookies();
+                if (c != null) {
+                    for (int i = 0; i < c.length; i++) {
+                        if (!cookies.containsKey(c[i].getName())) {
+                            cookies.put(c[i].getName(), c[i]);
                         }
-                        return null;
                     }
-
-                    protected Object getAttribute(String name) {
-                        Cookie[] c = ((HttpServletRequest) page.getRequest())
-                                .getCookies();
-                        if (c != null) {
-                            for (int i = 0; i < c.length; i++) {
-                                if (name.equals(c[i].getName())) {
-                                    return c[i];
-                                }
-                            }
-                        }
-                        return null;
-                    }
-
-                };
+                }
+                this.cookie = new SnapshotMap(cookies, false);
             }
             return this.cookie;
         }
 
         public Map getHeader() {
             if (this.header == null) {
-                this.header = new ScopeMap() {
-                    protected Enumeration getAttributeNames() {
-                        return ((HttpServletRequest) page.getRequest())
-                                .getHeaderNames();
-                    }
-
-                    protected Object getAttribute(String name) {
-                        return ((HttpServletRequest) page.getRequest())
-                                .getHeader(name);
+                HttpServletRequest request = (HttpServletRequest) page.getRequest();
+                Map<String, Object> headers = new LinkedHashMap<String, Object>();
+                Enumeration names = request.getHeaderNames();
+                if (names != null) {
+                    while (names.hasMoreElements()) {
+                        String name = (String) names.nextElement();
+                        headers.put(name, request.getHeader(name));
                     }
-                };
+                }
+                this.header = new SnapshotMap(headers, true);
             }
             return this.header;
         }
 
         public Map getHeaderValues() {
             if (this.headerValues == null) {
-                this.headerValues = new ScopeMap() {
-                    protected Enumeration getAttributeNames() {
-                        return ((HttpServletRequest) page.getRequest())
-                                .getHeaderNames();
-                    }
-
-                    protected Object getAttribute(String name) {
-                        Enumeration e = ((HttpServletRequest) page.getRequest())
-                                .getHeaders(name);
+                HttpServletRequest request = (HttpServletRequest) page.getRequest();
+                Map<String, Object> headers = new LinkedHashMap<String, Object>();
+                Enumeration names = request.getHeaderNames();
+                if (names != null) {
+                    while (names.hasMoreElements()) {
+                        String name = (String) names.nextElement();
+                        Enumeration e = request.getHeaders(name);
                         if (e != null) {
                             List list = new ArrayList();
                             while (e.hasMoreElements()) {
                                 list.add(e.nextElement().toString());
                             }
-                            return (String[]) list.toArray(new String[list
-                                    .size()]);
+                            headers.put(name, (String[]) list.toArray(new String[list
+                                    .size()]));
                         }
-                        return null;
                     }
-
-                };
+                }
+                this.headerValues = new SnapshotMap(headers, true);
             }
             return this.headerValues;
         }
@@ -376,30 +363,26 @@ public class ImplicitObjectELResolver extends ELResolver {
 
         public Map getParam() {
             if (this.param == null) {
-                this.param = new ScopeMap() {
-                    protected Enumeration getAttributeNames() {
-                        return page.getRequest().getParameterNames();
-                    }
-
-                    protected Object getAttribute(String name) {
-                        return page.getRequest().getParameter(name);
-                    }
-                };
+                Map<String, Object> params = new LinkedHashMap<String, Object>();
+                Enumeration names = page.getRequest().getParameterNames();
+                while (names.hasMoreElements()) {
+                    String name = (String) names.nextElement();
+                    params.put(name, page.getRequest().getParameter(name));
+                }
+                this.param = new SnapshotMap(params, false);
             }
             return this.param;
         }
 
         public Map getParamValues() {
             if (this.paramValues == null) {
-                this.paramValues = new ScopeMap() {
-                    protected Object getAttribute(String name) {
-                        return page.getRequest().getParameterValues(name);
-                    }
-
-                    protected Enumeration getAttributeNames() {
-                        return page.getRequest().getParameterNames();
-                    }
-                };
+                Map<String, Object> params = new LinkedHashMap<String, Object>();
+                Enumeration names = page.getRequest().getParameterNames();
+                while (names.hasMoreElements()) {
+                    String name = (String) names.nextElement();
+                    params.put(name, page.getRequest().getParameterValues(name));
+                }
+                this.paramValues = new SnapshotMap(params, false);
             }
             return this.paramValues;
         }
@@ -552,4 +535,59 @@ public class ImplicitObjectELResolver extends ELResolver {
 
     }
 
+    /**
+     * A read-only map over values collected once from the request.  Lookups are
+     * plain hash lookups; when case is ignored the names are also indexed in lower
+     * case so only lookups using neither the original nor the lower case form of
+     * a name have to convert it.
+     */
+    private static class SnapshotMap extends AbstractMap {
+
+        private final Map<String, Object> entries;
+
+        private final Map<String, Object> index;
+
+        private final boolean ignoreCase;
+
+        public SnapshotMap(Map<String, Object> entries, boolean ignoreCase) {
+            this.entries = Collections.unmodifiableMap(entries);
+            this.ignoreCase = ignoreCase;
+            if (ignoreCase) {
+                this.index = new HashMap<String, Object>(entries);
+                for (Map.Entry<String, Object> entry : entries.entrySet()) {
+                    String lower = entry.getKey().toLowerCase(Locale.ENGLISH);
+                    if (!this.index.containsKey(lower)) {
+                        this.index.put(lower, entry.getValue());
+                    }
+                }
+            } else {
+                this.index = entries;
+            }
+        }
+
+        public Set entrySet() {
+            return this.entries.entrySet();
+        }
+
+        public int size() {
+            return this.entries.size();
+        }
+
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        public Object get(Object key) {
+            if (key == null) {
+                return null;
+            }
+            String name = key.toString();
+            Object value = this.index.get(name);
+            if (value == null && this.ignoreCase) {
+                value = this.index.get(name.toLowerCase(Locale.ENGLISH));
+            }
+            return value;
+        }
+    }
+
 }
@@ -23,7 +23,9 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.lang.reflect.Method;
+import java.nio.charset.Charset;
 import java.text.MessageFormat;
 import java.util.Enumeration;
 import java.util.Locale;
@@ -95,6 +97,12 @@ public abstract class HttpServlet extends GenericServlet
     private static ResourceBundle lStrings =
             ResourceBundle.getBundle(LSTRING_FILE);
 
+    /*
+     * The do methods a servlet class overrides cannot change, so the Allow
+     * header is only worked out for the first OPTIONS request.
+     */
+    private transient volatile String allowHeader;
+
     /**
      * Does nothing, because this is an abstract class.
      */
@@ -442,7 +450,15 @@ public abstract class HttpServlet extends GenericServlet
      */
     protected void doOptions(HttpServletRequest req, HttpServletResponse resp)
             throws ServletException, IOException {
-        Method[] methods = getAllDeclaredMethods(this.getClass());
+        String allow = allowHeader;
+        if (allow == null) {
+            allow = computeAllowHeader(getAllDeclaredMethods(this.getClass()));
+            allowHeader = allow;
+        }
+        resp.setHeader("Allow", allow);
+    }
+
+    private static String computeAllowHeader(Method[] methods) {
 
         boolean ALLOW_GET = false;
         boolean ALLOW_HEAD = false;
@@ -490,7 +506,7 @@ public abstract class HttpServlet extends GenericServlet
             if (allow == null) allow = METHOD_OPTIONS;
             else allow += ", " + METHOD_OPTIONS;
 
-        resp.setHeader("Allow", allow);
+        return allow;
     }
 
     /**
@@ -690,6 +706,8 @@ class NoBodyResponse extends HttpServletResponseWrapper {
 
     // file private
     void setContentLength() {
+        if (writer != null)
+            writer.flush();
         if (!didSetContentLength)
             super.setContentLength(noBody.getContentLength());
     }
@@ -707,10 +725,7 @@ class NoBodyResponse extends HttpServletResponseWrapper {
 
     public PrintWriter getWriter() throws UnsupportedEncodingException {
         if (writer == null) {
-            OutputStreamWriter w;
-
-            w = new OutputStreamWriter(noBody, getCharacterEncoding());
-            writer = new PrintWriter(w);
+            writer = new PrintWriter(NoBodyWriter.create(noBody, getCharacterEncoding()));
         }
         return writer;
     }
@@ -740,6 +755,11 @@ class NoBodyOutputStream extends ServletOutputStream {
         return contentLength;
     }
 
+    // file private
+    void addContentLength(int len) {
+        contentLength += len;
+    }
+
     public void write(int b) {
         contentLength++;
     }
@@ -757,3 +777,106 @@ class NoBodyOutputStream extends ServletOutputStream {
         }
     }
 }
+
+/*
+ * Writer for NoBodyResponse.  For single byte encodings and UTF-8 the
+ * number of bytes the characters would be encoded to is simple arithmetic,
+ * so it is added to the content length directly instead of encoding the
+ * body only to throw it away.  As with OutputStreamWriter, anything that
+ * cannot be encoded counts as a one byte replacement.  Other encodings go
+ * through an OutputStreamWriter as before.
+ */
+
+// file private
+class NoBodyWriter extends Writer {
+
+    private final NoBodyOutputStream noBody;
+    private final boolean utf8;
+    private boolean pendingHighSurrogate;
+
+    private NoBodyWriter(NoBodyOutputStream noBody, boolean utf8) {
+        this.noBody = noBody;
+        this.utf8 = utf8;
+    }
+
+    // file private
+    static Writer create(NoBodyOutputStream noBody, String encoding)
+            throws UnsupportedEncodingException {
+        Charset charset;
+        try {
+            charset = Charset.forName(encoding);
+        } catch (IllegalArgumentException e) {
+            // let OutputStreamWriter report the unsupported encoding
+            return new OutputStreamWriter(noBody, encoding);
+        }
+        if (charset.name().equals("UTF-8")) {
+            return new NoBodyWriter(noBody, true);
+        }
+        if (charset.canEncode() && charset.newEncoder().maxBytesPerChar() == 1.0f) {
+            return new NoBodyWriter(noBody, false);
+        }
+        return new OutputStreamWriter(noBody, charset);
+    }
+
+    public void write(int c) {
+        noBody.addContentLength(length((char) c));
+    }
+
+    public void write(char cbuf[], int off, int len) {
+        if (off < 0 || len < 0 || len > cbuf.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        int count = 0;
+        for (int i = off; i < off + len; i++) {
+            count += length(cbuf[i]);
+        }
+        noBody.addContentLength(count);
+    }
+
+    public void write(String str, int off, int len) {
+        if (off < 0 || len < 0 || len > str.length() - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        int count = 0;
+        for (int i = off; i < off + len; i++) {
+            count += length(str.charAt(i));
+        }
+        noBody.addContentLength(count);
+    }
+
+    public void flush() {
+    }
+
+    public void close() {
+        if (pendingHighSurrogate) {
+            pendingHighSurrogate = false;
+            noBody.addContentLength(1);
+        }
+    }
+
+    /*
+     * A high surrogate is only counted once the next character shows whether
+     * it starts a valid pair, which is a single unmappable character for a
+     * single byte encoding.
+     */
+    private int length(char c) {
+        int count = 0;
+        if (pendingHighSurrogate) {
+            pendingHighSurrogate = false;
+            if (c >= 0xDC00 && c <= 0xDFFF) {
+                return utf8 ? 4 : 1;
+            }
+            count = 1;
+        }
+        if (c >= 0xD800 && c <= 0xDBFF) {
+            pendingHighSurrogate = true;
+        } else if (!utf8 || c < 0x80 || (c >= 0xDC00 && c <= 0xDFFF)) {
+            count += 1;
+        } else if (c < 0x800) {
+            count += 2;
+        } else {
+            count += 3;
+        }
+        return count;
+    }
+}
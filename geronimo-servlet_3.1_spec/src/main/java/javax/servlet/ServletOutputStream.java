@@ -44,6 +44,19 @@ public abstract class ServletOutputStream extends OutputStream {
     private static final String LSTRING_FILE = "javax.servlet.LocalStrings";
     private static ResourceBundle lStrings = ResourceBundle.getBundle(LSTRING_FILE);
 
+    /*
+     * Strings are printed in chunks of up to PRINT_CHUNK_SIZE bytes, so they
+     * reach the container with one bulk write per chunk instead of one
+     * write(int) call per character. Each chunk is a fresh array, as the
+     * container may keep the arrays it is handed. Setting
+     * org.apache.geronimo.spec.servlet.printEncoding to a charset name makes
+     * print() encode with that charset instead of rejecting characters outside
+     * ISO-8859-1.
+     */
+    private static final String printEncoding = System.getProperty("org.apache.geronimo.spec.servlet.printEncoding");
+
+    private static final int PRINT_CHUNK_SIZE = 8192;
+
     /**
      * Does nothing, because this is an abstract class.
      */
@@ -69,24 +82,38 @@ public abstract class ServletOutputStream extends OutputStream {
     public void print(String s) throws IOException {
         if (s == null)
             s = "null";
+        if (printEncoding != null) {
+            byte[] bytes = s.getBytes(printEncoding);
+            write(bytes, 0, bytes.length);
+            return;
+        }
         int len = s.length();
-        for (int i = 0; i < len; i++) {
-            char c = s.charAt(i);
+        for (int off = 0; off < len; off += PRINT_CHUNK_SIZE) {
+            int n = Math.min(len - off, PRINT_CHUNK_SIZE);
+            byte[] buffer = new byte[n];
+            for (int i = 0; i < n; i++) {
+                char c = s.charAt(off + i);
 
-            //
-            // XXX NOTE: This is clearly incorrect for many strings,
-            // but is the only consistent approach within the current
-            // servlet framework. It must suffice until servlet output
-            // streams properly encode their output.
-            //
-            if ((c & 0xff00) != 0) { // high order byte must be zero
-                String errMsg = lStrings.getString("err.not_iso8859_1");
-                Object[] errArgs = new Object[1];
-                errArgs[0] = c;
-                errMsg = MessageFormat.format(errMsg, errArgs);
-                throw new CharConversionException(errMsg);
+                //
+                // XXX NOTE:  This is clearly incorrect for many strings,
+                // but is the only consistent approach within the current
+                // servlet framework.  It must suffice until servlet output
+                // streams properly encode their output.
+                //
+                if ((c & 0xff00) != 0) {        // high order byte must be zero
+                    // the characters before it are still written
+                    if (i > 0) {
+                        write(buffer, 0, i);
+                    }
+                    String errMsg = lStrings.getString("err.not_iso8859_1");
+                    Object[] errArgs = new Object[1];
+                    errArgs[0] = c;
+                    errMsg = MessageFormat.format(errMsg, errArgs);
+                    throw new CharConversionException(errMsg);
+                }
+                buffer[i] = (byte) c;
             }
-            write(c);
+            write(buffer, 0, n);
         }
     }
 
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package javax.servlet.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+/**
+ * Single pass parser for <i>application/x-www-form-urlencoded</i> data, fed
+ * either from a string or straight from a request body, used by
+ * {@link HttpUtils}.
+ * <p/>
+ * <p>Decoding is the one HttpUtils has always applied: + is a space, %xx is
+ * the ISO-8859-1 character xx and an escape cut short by the end of a name or
+ * value is kept as it is. Values of repeated names are collected in arrays
+ * which double in size, and the number of parameters and the size of the
+ * data can be limited with the org.apache.geronimo.spec.servlet.maxFormParameters
+ * (10000 by default) and org.apache.geronimo.spec.servlet.maxFormSize (not
+ * limited by default) system properties.
+ *
+ * @version $Rev$ $Date$
+ */
+final class FormParameterParser {
+
+    private static final String LSTRING_FILE =
+            "javax.servlet.http.LocalStrings";
+    private static ResourceBundle lStrings =
+            ResourceBundle.getBundle(LSTRING_FILE);
+
+    private static final int MAX_PARAMETERS = Integer.getInteger("org.apache.geronimo.spec.servlet.maxFormParameters", 10000);
+
+    private static final int MAX_SIZE = Integer.getInteger("org.apache.geronimo.spec.servlet.maxFormSize", -1);
+
+    private final Map<String, Values> parameters = new HashMap<String, Values>();
+
+    private final StringBuilder name = new StringBuilder();
+
+    private final StringBuilder value = new StringBuilder();
+
+    private StringBuilder current = name;
+
+    // nothing of the current name=value pair has been seen yet
+    private boolean empty = true;
+
+    // 0, or how much of a %xx escape has been seen
+    private int escape;
+
+    private char escapeDigit;
+
+    private int count;
+
+    FormParameterParser parse(CharSequence s) {
+        checkSize(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            accept(s.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Parse exactly len bytes of ISO-8859-1 encoded data from the stream.
+     *
+     * @throws IllegalArgumentException if the stream ends early
+     */
+    FormParameterParser parse(InputStream in, int len) throws IOException {
+        checkSize(len);
+        byte[] buffer = new byte[Math.min(len, 4096)];
+        int remaining = len;
+        while (remaining > 0) {
+            int n = in.read(buffer, 0, Math.min(remaining, buffer.length));
+            if (n <= 0) {
+                String msg = lStrings.getString("err.io.short_read");
+                throw new IllegalArgumentException(msg);
+            }
+            for (int i = 0; i < n; i++) {
+                accept((char) (buffer[i] & 0xff));
+            }
+            remaining -= n;
+        }
+        return this;
+    }
+
+    Hashtable<String, String[]> toHashtable() {
+        endPair();
+        Hashtable<String, String[]> ht = new Hashtable<String, String[]>(Math.max(2 * parameters.size(), 11));
+        for (Map.Entry<String, Values> entry : parameters.entrySet()) {
+            ht.put(entry.getKey(), entry.getValue().toArray());
+        }
+        return ht;
+    }
+
+    private void accept(char c) {
+        if (c == '&') {
+            endPair();
+            return;
+        }
+        empty = false;
+        if (c == '=' && current == name) {
+            endEscape();
+            current = value;
+        } else if (escape == 1) {
+            escapeDigit = c;
+            escape = 2;
+        } else if (escape == 2) {
+            current.append(unescape(escapeDigit, c));
+            escape = 0;
+        } else if (c == '%') {
+            escape = 1;
+        } else if (c == '+') {
+            current.append(' ');
+        } else {
+            current.append(c);
+        }
+    }
+
+    private void endEscape() {
+        if (escape > 0) {
+            current.append('%');
+            if (escape == 2) {
+                current.append(escapeDigit);
+            }
+            escape = 0;
+        }
+    }
+
+    private void endPair() {
+        if (empty) {
+            return;
+        }
+        if (current != value) {
+            // XXX
+            // should give more detail about the illegal argument
+            throw new IllegalArgumentException();
+        }
+        endEscape();
+        if (MAX_PARAMETERS >= 0 && ++count > MAX_PARAMETERS) {
+            String msg = lStrings.getString("err.too_many_parameters");
+            throw new IllegalArgumentException(MessageFormat.format(msg, MAX_PARAMETERS));
+        }
+        String key = name.toString();
+        Values values = parameters.get(key);
+        if (values == null) {
+            values = new Values();
+            parameters.put(key, values);
+        }
+        values.add(value.toString());
+        name.setLength(0);
+        value.setLength(0);
+        current = name;
+        empty = true;
+    }
+
+    private static char unescape(char high, char low) {
+        int h = Character.digit(high, 16);
+        int l = Character.digit(low, 16);
+        if (h >= 0 && l >= 0) {
+            return (char) ((h << 4) + l);
+        }
+        try {
+            // what Integer.parseInt accepts besides two digits, such as a sign
+            return (char) Integer.parseInt(new String(new char[] {high, low}), 16);
+        } catch (NumberFormatException e) {
+            // XXX
+            // need to be more specific about illegal arg
+            throw new IllegalArgumentException();
+        }
+    }
+
+    private static void checkSize(int size) {
+        if (MAX_SIZE >= 0 && size > MAX_SIZE) {
+            String msg = lStrings.getString("err.form_too_large");
+            throw new IllegalArgumentException(MessageFormat.format(msg, MAX_SIZE));
+        }
+    }
+
+    private static final class Values {
+
+        private String[] values = new String[1];
+
+        private int size;
+
+        void add(String value) {
+            if (size == values.length) {
+                String[] newValues = new String[size * 2];
+                System.arraycopy(values, 0, newValues, 0, size);
+                values = newValues;
+            }
+            values[size++] = value;
+        }
+
+        String[] toArray() {
+            if (size == values.length) {
+                return values;
+            }
+            String[] result = new String[size];
+            System.arraycopy(values, 0, result, 0, size);
+            return result;
+        }
+    }
+}
@@ -22,8 +22,6 @@ package javax.servlet.http;
 import javax.servlet.ServletInputStream;
 
 import java.util.Hashtable;
-import java.util.ResourceBundle;
-import java.util.StringTokenizer;
 import java.io.IOException;
 
 /**
@@ -37,11 +35,6 @@ import java.io.IOException;
 
 public class HttpUtils {
 
-    private static final String LSTRING_FILE =
-            "javax.servlet.http.LocalStrings";
-    private static ResourceBundle lStrings =
-            ResourceBundle.getBundle(LSTRING_FILE);
-
     /**
      * Constructs an empty <code>HttpUtils</code> object.
      */
@@ -77,36 +70,10 @@ public class HttpUtils {
      */
     static public Hashtable<String, String[]> parseQueryString(String s) {
 
-        String valArray[];
-
         if (s == null) {
             throw new IllegalArgumentException();
         }
-        Hashtable<String, String[]> ht = new Hashtable<String, String[]>();
-        StringBuffer sb = new StringBuffer();
-        StringTokenizer st = new StringTokenizer(s, "&");
-        while (st.hasMoreTokens()) {
-            String pair = st.nextToken();
-            int pos = pair.indexOf('=');
-            if (pos == -1) {
-                // XXX
-                // should give more detail about the illegal argument
-                throw new IllegalArgumentException();
-            }
-            String key = parseName(pair.substring(0, pos), sb);
-            String val = parseName(pair.substring(pos + 1, pair.length()), sb);
-            if (ht.containsKey(key)) {
-                String oldVals[] = ht.get(key);
-                valArray = new String[oldVals.length + 1];
-                System.arraycopy(oldVals, 0, valArray, 0, oldVals.length);
-                valArray[oldVals.length] = val;
-            } else {
-                valArray = new String[1];
-                valArray[0] = val;
-            }
-            ht.put(key, valArray);
-        }
-        return ht;
+        return new FormParameterParser().parse(s).toHashtable();
     }
 
     /**
@@ -154,78 +121,21 @@ public class HttpUtils {
             throw new IllegalArgumentException();
         }
 
-        //
-        // Make sure we read the entire POSTed body.
-        //
-        byte[] postedBytes = new byte[len];
-        try {
-            int offset = 0;
-
-            do {
-                int inputLen = in.read(postedBytes, offset, len - offset);
-                if (inputLen <= 0) {
-                    String msg = lStrings.getString("err.io.short_read");
-                    throw new IllegalArgumentException(msg);
-                }
-                offset += inputLen;
-            } while ((len - offset) > 0);
-
-        } catch (IOException e) {
-            throw new IllegalArgumentException(e.getMessage());
-        }
-
         // XXX we shouldn't assume that the only kind of POST body
         // is FORM data encoded using ASCII or ISO Latin/1 ... or
         // that the body should always be treated as FORM data.
         //
-
+        // The body is decoded while it is read, the parser makes sure
+        // the entire POSTed body is read.
+        //
         try {
-            String postedBody = new String(postedBytes, 0, len, "8859_1");
-            return parseQueryString(postedBody);
-        } catch (java.io.UnsupportedEncodingException e) {
-            // XXX function should accept an encoding parameter & throw this
-            // exception.  Otherwise throw something expected.
+            return new FormParameterParser().parse(in, len).toHashtable();
+        } catch (IOException e) {
             throw new IllegalArgumentException(e.getMessage());
         }
     }
 
 
-    /*
-    * Parse a name in the query string.
-    */
-    static private String parseName(String s, StringBuffer sb) {
-        sb.setLength(0);
-        for (int i = 0; i < s.length(); i++) {
-            char c = s.charAt(i);
-            switch (c) {
-                case '+':
-                    sb.append(' ');
-                    break;
-                case '%':
-                    try {
-                        sb.append((char) Integer.parseInt(s.substring(i + 1, i + 3),
-                                16));
-                        i += 2;
-                    } catch (NumberFormatException e) {
-                        // XXX
-                        // need to be more specific about illegal arg
-                        throw new IllegalArgumentException();
-                    } catch (StringIndexOutOfBoundsException e) {
-                        String rest = s.substring(i);
-                        sb.append(rest);
-                        if (rest.length() == 2)
-                            i++;
-                    }
-
-                    break;
-                default:
-                    sb.append(c);
-                    break;
-            }
-        }
-        return sb.toString();
-    }
-
     /**
      * Reconstructs the URL the client used to make the request,
      * using information in the <code>HttpServletRequest</code> object.